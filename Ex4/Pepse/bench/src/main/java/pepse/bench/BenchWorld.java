@@ -0,0 +1,51 @@
+package pepse.bench;
+
+import danogl.gui.WindowController;
+import danogl.util.Vector2;
+import pepse.HeadlessRunner;
+import pepse.util.Seed;
+import pepse.util.Services;
+
+/**
+ * The services the world needs, for benchmarks creating parts of it without a
+ * game. They are registered once, in the default container, so every thread
+ * JMH runs a benchmark on sees them.
+ *
+ * @author Oryan Hassidim
+ */
+final class BenchWorld {
+    /**
+     * The size of the stand-in window.
+     */
+    static final Vector2 WINDOW_SIZE = new Vector2(800, 600);
+    /**
+     * The seed of the world.
+     */
+    static final int SEED = 1;
+
+    /**
+     * The stand-in window, once registered.
+     */
+    private static WindowController window = null;
+
+    /**
+     * A private constructor to prevent instantiation.
+     */
+    private BenchWorld() {
+    }
+
+    /**
+     * Registers the window and the seed, if not registered yet.
+     *
+     * @return the stand-in window
+     */
+    static synchronized WindowController install() {
+        if (window == null) {
+            System.setProperty("java.awt.headless", "true");
+            window = HeadlessRunner.windowStandIn(WINDOW_SIZE);
+            Services.getDefault().addSingleton(WindowController.class, window);
+            Services.getDefault().addSingleton(Seed.class, () -> SEED);
+        }
+        return window;
+    }
+}
@@ -0,0 +1,52 @@
+package pepse.bench;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+
+/**
+ * Runs the benchmarks with the gc profiler, so every benchmark reports its
+ * allocation rate next to its throughput. Takes the usual JMH options, such as
+ * a regular expression of the benchmarks to run, and the options only
+ * listing or explaining things, such as -l and -h, which run nothing:
+ *
+ * <pre>
+ * java -cp bench/target/benchmarks.jar:DanoGameLab.jar pepse.bench.Benchmarks Event
+ * </pre>
+ *
+ * @author Oryan Hassidim
+ */
+public final class Benchmarks {
+    /**
+     * A private constructor to prevent instantiation.
+     */
+    private Benchmarks() {
+    }
+
+    /**
+     * Runs the benchmarks.
+     *
+     * @param args the JMH options
+     * @throws CommandLineOptionException if the options are invalid
+     * @throws RunnerException            if a benchmark fails
+     * @throws IOException                if listing fails
+     */
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        var options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+                || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder()
+                .parent(options)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,148 @@
+package pepse.bench;
+
+import danogl.GameManager;
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import danogl.collisions.Layer;
+import danogl.gui.SoundReader;
+import danogl.util.Vector2;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.HeadlessRunner;
+import pepse.world.Block;
+import pepse.world.WorldChunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark of removing the objects of an out of range chunk from a layer
+ * populated by the rest of the world, the work the game does when the avatar
+ * walks away from a chunk. A batch of fresh chunks is added before every
+ * invocation, which removes them all, so the measured time is only their
+ * removal, and the cost of timing an invocation and of its setup is spread
+ * over the whole batch. The score is per chunk.
+ *
+ * @author Oryan Hassidim
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChunkRemovalBenchmark {
+    /**
+     * The layer of the objects.
+     */
+    private static final int LAYER = Layer.STATIC_OBJECTS;
+    /**
+     * The number of objects of the removed chunk, a chunk of ground without
+     * meshing.
+     */
+    private static final int CHUNK_OBJECTS = 256;
+    /**
+     * The number of chunks removed by an invocation.
+     */
+    private static final int BATCH = 32;
+
+    /**
+     * The number of objects of the rest of the world, in the same layer.
+     */
+    @Param({ "1000", "10000" })
+    public int layerSize;
+
+    /**
+     * The game objects collection.
+     */
+    private GameObjectCollection gameObjects;
+    /**
+     * The chunks removed by the next invocation.
+     */
+    private final List<WorldChunk> chunks = new ArrayList<>();
+    /**
+     * The objects removed by the last invocation.
+     */
+    private final List<GameObject> removed = new ArrayList<>();
+    /**
+     * The index of the next chunk, so every chunk's blocks are at new positions.
+     */
+    private int nextChunk = 0;
+
+    /**
+     * Creates a game and populates the layer with the rest of the world.
+     */
+    @Setup
+    public void setUp() {
+        var window = BenchWorld.install();
+        var game = new GameManager();
+        game.initializeGame(HeadlessRunner.imageReaderStandIn(window), new SoundReader(window),
+                HeadlessRunner.inputStandIn(key -> false), window);
+        gameObjects = game.gameObjects();
+        for (int i = 0; i < layerSize; i++) {
+            // below the chunks, so no block equals a block of a chunk
+            gameObjects.addGameObject(block(i, -1), LAYER);
+        }
+    }
+
+    /**
+     * Recycles the objects removed by the last invocation, and adds a batch of
+     * fresh chunks to the game.
+     */
+    @Setup(Level.Invocation)
+    public void addChunks() {
+        for (var obj : removed) {
+            ((Block) obj).recycle();
+        }
+        removed.clear();
+        chunks.clear();
+        for (int i = 0; i < BATCH; i++) {
+            var chunk = new WorldChunk(nextChunk++);
+            for (int j = 0; j < CHUNK_OBJECTS; j++) {
+                var block = block(chunk.getIndex() * CHUNK_OBJECTS + j, 0);
+                gameObjects.addGameObject(block, LAYER);
+                chunk.add(block, LAYER);
+            }
+            chunks.add(chunk);
+        }
+    }
+
+    /**
+     * Removes the objects of the batch of chunks from the game.
+     *
+     * @return the number of removed objects
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int removeChunks() {
+        var count = 0;
+        for (var chunk : chunks) {
+            count += chunk.removeObjects(gameObjects, Integer.MAX_VALUE, removed);
+        }
+        return count;
+    }
+
+    /**
+     * Gets a block at a position of the grid.
+     *
+     * @param column the column of the block
+     * @param row    the row of the block
+     * @return the block
+     */
+    private static Block block(int column, int row) {
+        return Block.obtain(new Vector2(column * Block.SIZE, row * Block.SIZE), Vector2.ONES.mult(Block.SIZE),
+                null);
+    }
+}
@@ -0,0 +1,94 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.util.Event;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark of invoking an event, by the number of its handlers. The
+ * handlers are of three kinds, as the trees, leaves and fruits reacting to a
+ * jump are, so the call to them is megamorphic, as it is in the
+ * game. Adding the handlers is not measured.
+ *
+ * @author Oryan Hassidim
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBenchmark {
+    /**
+     * The number of handlers.
+     */
+    @Param({ "10", "1000", "100000" })
+    public int listeners;
+
+    /**
+     * The event.
+     */
+    private final Event<EventBenchmark, Integer> event = new Event<>();
+    /**
+     * The sum of the arguments and indices seen by the first kind of handlers.
+     */
+    private long sum = 0;
+    /**
+     * The sum of the indices of the second kind of handlers called.
+     */
+    private long calls = 0;
+    /**
+     * The last argument minus index seen by the third kind of handlers.
+     */
+    private int last = 0;
+    /**
+     * The argument of the invocations, boxed once so the benchmark measures
+     * only what the event allocates.
+     */
+    private final Integer argument = 1_000;
+
+    /**
+     * Adds the handlers.
+     */
+    @Setup
+    public void setUp() {
+        var token = event.getToken();
+        for (int i = 0; i < listeners; i++) {
+            // every handler captures its index, so none is added twice
+            final var index = i;
+            switch (i % 3) {
+                case 0:
+                    token.add((sender, args) -> sender.sum += args.getArgs() + index);
+                    break;
+                case 1:
+                    token.add((sender, args) -> sender.calls += index);
+                    break;
+                default:
+                    token.add((sender, args) -> sender.last = args.getArgs() - index);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Invokes the event.
+     *
+     * @return the state the handlers changed
+     */
+    @Benchmark
+    public long invoke() {
+        event.invoke(this, argument);
+        return sum + calls + last;
+    }
+}
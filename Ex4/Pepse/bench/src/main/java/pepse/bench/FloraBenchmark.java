@@ -0,0 +1,123 @@
+package pepse.bench;
+
+import danogl.GameObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.GameState;
+import pepse.util.Event;
+import pepse.util.Recyclable;
+import pepse.util.ValueChanged;
+import pepse.world.Terrain;
+import pepse.world.Avatar.AvatarState;
+import pepse.world.trees.Flora;
+import pepse.world.trees.TreeData;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark of the flora: planning the trees of a window width, and creating
+ * the trunk, leaves and fruits of a single tree, as a loaded chunk does. The
+ * created objects go back to their pools and their handlers are dropped, as
+ * when their chunk is unloaded, so neither piles up.
+ *
+ * @author Oryan Hassidim
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FloraBenchmark {
+    /**
+     * The width of the window.
+     */
+    private static final int WINDOW_WIDTH = (int) BenchWorld.WINDOW_SIZE.x();
+    /**
+     * The number of trees created in turn.
+     */
+    private static final int TREES = 256;
+
+    /**
+     * The terrain the trees grow on.
+     */
+    private Terrain terrain;
+    /**
+     * The trees created in turn.
+     */
+    private final List<TreeData> trees = new ArrayList<>();
+    /**
+     * The avatar state changed event the created objects react to.
+     */
+    private final Event<GameState, ValueChanged<AvatarState>> avatarStateChanged = new Event<>();
+    /**
+     * The objects of the created tree.
+     */
+    private final List<GameObject> created = new ArrayList<>();
+    /**
+     * The next tree to create.
+     */
+    private int next = 0;
+    /**
+     * The next x coordinate to plan.
+     */
+    private float x = 0;
+
+    /**
+     * Creates the terrain and plans the trees.
+     */
+    @Setup
+    public void setUp() {
+        BenchWorld.install();
+        terrain = new Terrain();
+        while (trees.size() < TREES) {
+            trees.addAll(Flora.planInRange(x, x + WINDOW_WIDTH, BenchWorld.SEED, terrain));
+            x += WINDOW_WIDTH;
+        }
+    }
+
+    /**
+     * Plans the trees of a window width.
+     *
+     * @return the trees
+     */
+    @Benchmark
+    public List<TreeData> planInRange() {
+        var planned = Flora.planInRange(x, x + WINDOW_WIDTH, BenchWorld.SEED, terrain);
+        x += WINDOW_WIDTH;
+        return planned;
+    }
+
+    /**
+     * Creates the trunk, leaves and fruits of a tree.
+     *
+     * @return the number of objects created
+     */
+    @Benchmark
+    public int createTree() {
+        var tree = trees.get(next);
+        next = (next + 1) % trees.size();
+        var token = avatarStateChanged.getToken();
+        var trunk = Flora.createTree(tree, token);
+        created.add(trunk);
+        Flora.createLeaves(tree, token).forEach(created::add);
+        Flora.createFruits(tree, trunk, token).forEach(created::add);
+        var count = created.size();
+        for (var obj : created) {
+            ((Recyclable) obj).recycle();
+        }
+        created.clear();
+        avatarStateChanged.clear();
+        return count;
+    }
+}
@@ -0,0 +1,91 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.util.NoiseGenerator;
+import pepse.world.Block;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark of the terrain noise, per column, walking right as the avatar
+ * does so no two columns are the same.
+ *
+ * @author Oryan Hassidim
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NoiseBenchmark {
+    /**
+     * The start point of the noise, the ground height at x = 0 of the stand-in
+     * window, as in the terrain.
+     */
+    private static final int START_POINT = (int) (BenchWorld.WINDOW_SIZE.y() * 0.7);
+    /**
+     * The factor of the noise, as in the terrain.
+     */
+    private static final double FACTOR = Block.SIZE * 5;
+    /**
+     * The number of columns per range.
+     */
+    private static final int COLUMNS = 64;
+
+    /**
+     * The noise generator.
+     */
+    private NoiseGenerator noise;
+    /**
+     * The next x coordinate.
+     */
+    private double x = 0;
+    /**
+     * The noise of a range.
+     */
+    private final double[] range = new double[COLUMNS];
+
+    /**
+     * Creates the noise generator.
+     */
+    @Setup
+    public void setUp() {
+        noise = new NoiseGenerator(BenchWorld.SEED, START_POINT);
+    }
+
+    /**
+     * The noise of a single column.
+     *
+     * @return the noise
+     */
+    @Benchmark
+    public double noise() {
+        x += Block.SIZE;
+        return noise.noise(x, FACTOR);
+    }
+
+    /**
+     * The noise of a range of columns, in one pass, as the terrain plans its
+     * ground.
+     *
+     * @return the noise
+     */
+    @Benchmark
+    @OperationsPerInvocation(COLUMNS)
+    public double[] noiseRange() {
+        noise.noiseRange(x, Block.SIZE, COLUMNS, FACTOR, range);
+        x += COLUMNS * Block.SIZE;
+        return range;
+    }
+}
@@ -0,0 +1,165 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.util.ServiceHandle;
+import pepse.util.Services;
+import pepse.util.services.NoPublicConstructorFoundException;
+import pepse.util.services.ServiceProvider;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark of getting services: a singleton and a service constructed by
+ * injection, each by type and through a handle. The service constructed by
+ * injection is also provided the reflective way Services used before
+ * compiling constructors into method handles, as a baseline.
+ *
+ * @author Oryan Hassidim
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServicesBenchmark {
+    /**
+     * A singleton service.
+     */
+    public static final class Config {
+        /**
+         * Creates a new config.
+         */
+        public Config() {
+        }
+    }
+
+    /**
+     * A service constructed on every request, with an injected dependency.
+     */
+    public static final class Session {
+        /**
+         * The config.
+         */
+        private final Config config;
+
+        /**
+         * Creates a new session.
+         *
+         * @param config the config
+         */
+        public Session(Config config) {
+            this.config = config;
+        }
+    }
+
+    /**
+     * The handle of the singleton.
+     */
+    private ServiceHandle<Config> config;
+    /**
+     * The handle of the constructed service.
+     */
+    private ServiceHandle<Session> session;
+    /**
+     * The reflective provider of the constructed service.
+     */
+    private ServiceProvider<Session> reflective;
+
+    /**
+     * Registers the services.
+     *
+     * @throws NoPublicConstructorFoundException never, the service has a public
+     *                                           constructor
+     */
+    @Setup
+    public void setUp() throws NoPublicConstructorFoundException {
+        Services.addSingleton(Config.class, new Config());
+        Services.addService(Session.class, Session.class);
+        config = Services.handle(Config.class);
+        session = Services.handle(Session.class);
+        reflective = reflectiveProvider(Session.class);
+    }
+
+    /**
+     * Gets the singleton by type.
+     *
+     * @return the singleton
+     */
+    @Benchmark
+    public Config getSingleton() {
+        return Services.getService(Config.class);
+    }
+
+    /**
+     * Gets the singleton through its handle.
+     *
+     * @return the singleton
+     */
+    @Benchmark
+    public Config getSingletonByHandle() {
+        return config.get();
+    }
+
+    /**
+     * Constructs the service by type.
+     *
+     * @return the service
+     */
+    @Benchmark
+    public Session getTransient() {
+        return Services.getService(Session.class);
+    }
+
+    /**
+     * Constructs the service through its handle.
+     *
+     * @return the service
+     */
+    @Benchmark
+    public Session getTransientByHandle() {
+        return session.get();
+    }
+
+    /**
+     * Constructs the service the reflective way, streaming the constructor
+     * parameters into an array and calling {@link Constructor#newInstance}.
+     *
+     * @return the service
+     */
+    @Benchmark
+    public Session getTransientReflective() {
+        return reflective.provide();
+    }
+
+    /**
+     * Creates a provider the way Services did before compiling constructors.
+     *
+     * @param <T>  the type of the service
+     * @param type the type of the service
+     * @return the provider
+     */
+    private static <T> ServiceProvider<T> reflectiveProvider(Class<T> type) {
+        Constructor<?> constructor = type.getConstructors()[0];
+        var params = constructor.getParameters();
+        return () -> {
+            try {
+                var arguments = Arrays.stream(params).map(p -> Services.getService(p.getType())).toArray();
+                return type.cast(constructor.newInstance(arguments));
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package pepse.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import pepse.world.Block;
+import pepse.world.Terrain;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A benchmark of the terrain: the height of single columns, fresh and cached,
+ * and the blocks of a whole window width. Fresh ground is made by walking
+ * right as the avatar does. The created blocks go back to their pool, as
+ * unloaded chunks do, so the pool stays warm.
+ *
+ * @author Oryan Hassidim
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TerrainBenchmark {
+    /**
+     * The width of the window.
+     */
+    private static final int WINDOW_WIDTH = (int) BenchWorld.WINDOW_SIZE.x();
+
+    /**
+     * A terrain for creating blocks, with and without meshing.
+     */
+    @State(Scope.Thread)
+    public static class Blocks {
+        /**
+         * Whether runs of columns are merged into single blocks.
+         */
+        @Param({ "true", "false" })
+        public boolean meshing;
+
+        /**
+         * The terrain.
+         */
+        private Terrain terrain;
+        /**
+         * The next fresh x coordinate.
+         */
+        private int x = 0;
+
+        /**
+         * Creates the terrain.
+         */
+        @Setup
+        public void setUp() {
+            BenchWorld.install();
+            terrain = new Terrain();
+            terrain.setMeshing(meshing);
+        }
+    }
+
+    /**
+     * The terrain.
+     */
+    private Terrain terrain;
+    /**
+     * The next fresh x coordinate.
+     */
+    private int x = 0;
+    /**
+     * The next cached x coordinate, within the first window width.
+     */
+    private int cachedX = 0;
+
+    /**
+     * Creates the terrain, and caches the first window width.
+     */
+    @Setup
+    public void setUp() {
+        BenchWorld.install();
+        terrain = new Terrain();
+        for (int i = 0; i < WINDOW_WIDTH; i += Block.SIZE) {
+            terrain.groundHeightAt(i);
+        }
+        x = WINDOW_WIDTH;
+    }
+
+    /**
+     * The height of a column never asked for before.
+     *
+     * @return the height
+     */
+    @Benchmark
+    public float groundHeightAt() {
+        x += Block.SIZE;
+        return terrain.groundHeightAt(x);
+    }
+
+    /**
+     * The height of a column asked for before.
+     *
+     * @return the height
+     */
+    @Benchmark
+    public float groundHeightAtCached() {
+        cachedX = (cachedX + Block.SIZE) % WINDOW_WIDTH;
+        return terrain.groundHeightAt(cachedX);
+    }
+
+    /**
+     * The blocks of a window width of fresh ground.
+     *
+     * @param state the terrain for creating blocks
+     * @return the number of blocks
+     */
+    @Benchmark
+    public int createInRange(Blocks state) {
+        var blocks = state.terrain.createInRange(state.x, state.x + WINDOW_WIDTH);
+        state.x += WINDOW_WIDTH;
+        for (var block : blocks) {
+            block.recycle();
+        }
+        return blocks.size();
+    }
+}
@@ -0,0 +1,123 @@
+package pepse.bench;
+
+import pepse.util.ServiceContainer;
+import pepse.util.Services;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A check that warming up lazy singletons depending on each other in a cycle
+ * builds them all instead of waiting forever. Registers a cycle of two and a
+ * cycle of three, warms them up and fails if they are not built in time.
+ * Run with the game's classes and DanoGameLab on the class path:
+ *
+ * <pre>
+ * java -cp bench/target/benchmarks.jar:DanoGameLab.jar pepse.bench.WarmUpCycleCheck
+ * </pre>
+ *
+ * @author Oryan Hassidim
+ */
+public final class WarmUpCycleCheck {
+    /**
+     * A service of a cycle of two, using the other when built.
+     */
+    public static final class First {
+        /**
+         * Creates a new first service.
+         */
+        public First() {
+        }
+    }
+
+    /**
+     * A service of a cycle of two.
+     */
+    public static final class Second {
+        /**
+         * Creates a new second service.
+         */
+        public Second() {
+        }
+    }
+
+    /**
+     * A service of a cycle of three.
+     */
+    public static final class Red {
+        /**
+         * Creates a new red service.
+         */
+        public Red() {
+        }
+    }
+
+    /**
+     * A service of a cycle of three.
+     */
+    public static final class Green {
+        /**
+         * Creates a new green service.
+         */
+        public Green() {
+        }
+    }
+
+    /**
+     * A service of a cycle of three.
+     */
+    public static final class Blue {
+        /**
+         * Creates a new blue service.
+         */
+        public Blue() {
+        }
+    }
+
+    /**
+     * The time to wait for the warm up, in seconds.
+     */
+    private static final int TIMEOUT_SECONDS = 5;
+
+    /**
+     * A private constructor to prevent instantiation.
+     */
+    private WarmUpCycleCheck() {
+    }
+
+    /**
+     * Runs the check.
+     *
+     * @param args ignored
+     * @throws InterruptedException if interrupted while waiting
+     * @throws ExecutionException   if building a service failed
+     * @throws TimeoutException     if the services were not built in time, the
+     *                              failure checked for
+     */
+    public static void main(String[] args) throws InterruptedException, ExecutionException, TimeoutException {
+        var container = new ServiceContainer();
+        // the first of every cycle uses the next one, which is built on demand
+        // if its build did not start yet
+        container.addLazySingleton(First.class, () -> {
+            Services.getService(Second.class);
+            return new First();
+        }, Second.class);
+        container.addLazySingleton(Second.class, Second::new, First.class);
+        container.addLazySingleton(Red.class, () -> {
+            Services.getService(Green.class);
+            return new Red();
+        }, Green.class);
+        container.addLazySingleton(Green.class, Green::new, Blue.class);
+        container.addLazySingleton(Blue.class, Blue::new, Red.class);
+
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            container.warmUp(executor).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.println("warm up of cyclic lazy singletons: ok");
+    }
+}
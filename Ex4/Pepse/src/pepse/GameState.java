@@ -2,15 +2,36 @@ package pepse;
 
 import pepse.util.Event;
 import pepse.util.EventToken;
+import pepse.util.FloatChangedEvent;
+import pepse.util.FloatChangedToken;
 import pepse.util.ValueChanged;
 import pepse.world.Avatar.AvatarState;
 
 /**
  * The game state.
+ * Every change can be delivered in two ways. Immediate handlers are invoked
+ * inside the setter, on every change. End of frame handlers are invoked once
+ * per frame, from {@link #dispatchPendingChanges()}, with the value before the
+ * frame and the last value set during it, so values set several times a frame
+ * cost them a single call, and values set back to where they were cost none.
  * 
  * @author Oryan Hassidim
  */
 public class GameState {
+    /**
+     * The ways a change can be delivered to a handler.
+     */
+    public static enum Delivery {
+        /**
+         * On every change, inside the setter.
+         */
+        IMMEDIATE,
+        /**
+         * Once per frame, coalesced to the last value.
+         */
+        END_OF_FRAME
+    }
+
     /**
      * The avatar state.
      */
@@ -23,6 +44,22 @@ public class GameState {
      * The hour in the day.
      */
     private float hourInDay;
+    /**
+     * The avatar state at the last end of frame dispatch.
+     */
+    private AvatarState dispatchedAvatarState;
+    /**
+     * The avatar energy at the last end of frame dispatch.
+     */
+    private float dispatchedAvatarEnergy;
+    /**
+     * The hour in the day at the last end of frame dispatch.
+     */
+    private float dispatchedHourInDay;
+    /**
+     * Whether any value was set since the last end of frame dispatch.
+     */
+    private boolean dirty = false;
 
     /**
      * The avatar state changed event.
@@ -31,11 +68,23 @@ public class GameState {
     /**
      * The avatar energy changed event.
      */
-    private Event<GameState, ValueChanged<Float>> avatarEnergyChanged = new Event<>();
+    private FloatChangedEvent<GameState> avatarEnergyChanged = new FloatChangedEvent<>();
     /**
      * The hour in day changed event.
      */
-    private Event<GameState, ValueChanged<Float>> hourInDayChanged = new Event<>();
+    private FloatChangedEvent<GameState> hourInDayChanged = new FloatChangedEvent<>();
+    /**
+     * The avatar state changed event, delivered at the end of the frame.
+     */
+    private Event<GameState, ValueChanged<AvatarState>> coalescedAvatarStateChanged = new Event<>();
+    /**
+     * The avatar energy changed event, delivered at the end of the frame.
+     */
+    private FloatChangedEvent<GameState> coalescedAvatarEnergyChanged = new FloatChangedEvent<>();
+    /**
+     * The hour in day changed event, delivered at the end of the frame.
+     */
+    private FloatChangedEvent<GameState> coalescedHourInDayChanged = new FloatChangedEvent<>();
 
     /**
      * Create a new game state.
@@ -48,6 +97,9 @@ public class GameState {
         this.avatarState = avatarState;
         this.avatarEnergy = avatarEnergy;
         this.hourInDay = hourInDay;
+        this.dispatchedAvatarState = avatarState;
+        this.dispatchedAvatarEnergy = avatarEnergy;
+        this.dispatchedHourInDay = hourInDay;
     }
 
     /**
@@ -68,6 +120,7 @@ public class GameState {
         if (this.avatarState != avatarState) {
             var old = this.avatarState;
             this.avatarState = avatarState;
+            dirty = true;
             avatarStateChanged.invoke(this, new ValueChanged<>(old, avatarState));
         }
     }
@@ -90,7 +143,8 @@ public class GameState {
         if (this.avatarEnergy != avatarEnergy) {
             var old = this.avatarEnergy;
             this.avatarEnergy = avatarEnergy;
-            avatarEnergyChanged.invoke(this, new ValueChanged<>(old, avatarEnergy));
+            dirty = true;
+            avatarEnergyChanged.invoke(this, old, avatarEnergy);
         }
     }
 
@@ -112,10 +166,53 @@ public class GameState {
         if (this.hourInDay != hourInDay) {
             var old = this.hourInDay;
             this.hourInDay = hourInDay;
-            hourInDayChanged.invoke(this, new ValueChanged<>(old, hourInDay));
+            dirty = true;
+            hourInDayChanged.invoke(this, old, hourInDay);
         }
     }
 
+    /**
+     * Delivers the changes of the frame to the end of frame handlers, and the
+     * changes held back from rate limited handlers whose interval passed.
+     * Should be called once, at the end of every frame.
+     */
+    public void dispatchPendingChanges() {
+        flushRateLimited();
+        if (!dirty)
+            return;
+        dirty = false;
+        // the dispatched values are updated before invoking, so handlers setting
+        // values are delivered in the next frame
+        if (dispatchedAvatarState != avatarState) {
+            var old = dispatchedAvatarState;
+            dispatchedAvatarState = avatarState;
+            coalescedAvatarStateChanged.invoke(this, new ValueChanged<>(old, avatarState));
+        }
+        if (dispatchedAvatarEnergy != avatarEnergy) {
+            var old = dispatchedAvatarEnergy;
+            dispatchedAvatarEnergy = avatarEnergy;
+            coalescedAvatarEnergyChanged.invoke(this, old, avatarEnergy);
+        }
+        if (dispatchedHourInDay != hourInDay) {
+            var old = dispatchedHourInDay;
+            dispatchedHourInDay = hourInDay;
+            coalescedHourInDayChanged.invoke(this, old, hourInDay);
+        }
+    }
+
+    /**
+     * Delivers the changes held back from rate limited handlers whose interval
+     * passed.
+     */
+    private void flushRateLimited() {
+        avatarStateChanged.flush();
+        avatarEnergyChanged.flush();
+        hourInDayChanged.flush();
+        coalescedAvatarStateChanged.flush();
+        coalescedAvatarEnergyChanged.flush();
+        coalescedHourInDayChanged.flush();
+    }
+
     /**
      * Get the event token for the avatar state changed event.
      * 
@@ -125,21 +222,57 @@ public class GameState {
         return avatarStateChanged.getToken();
     }
 
+    /**
+     * Get the event token for the avatar state changed event, with the given
+     * delivery.
+     * 
+     * @param delivery The delivery of the changes.
+     * @return The event token.
+     */
+    public EventToken<GameState, ValueChanged<AvatarState>> onAvatarStateChanged(Delivery delivery) {
+        return delivery == Delivery.END_OF_FRAME ? coalescedAvatarStateChanged.getToken()
+                : avatarStateChanged.getToken();
+    }
+
     /**
      * Get the event token for the avatar energy changed event.
      * 
      * @return The event token.
      */
-    public EventToken<GameState, ValueChanged<Float>> onAvatarEnergyChanged() {
+    public FloatChangedToken<GameState> onAvatarEnergyChanged() {
         return avatarEnergyChanged.getToken();
     }
 
+    /**
+     * Get the event token for the avatar energy changed event, with the given
+     * delivery.
+     * 
+     * @param delivery The delivery of the changes.
+     * @return The event token.
+     */
+    public FloatChangedToken<GameState> onAvatarEnergyChanged(Delivery delivery) {
+        return delivery == Delivery.END_OF_FRAME ? coalescedAvatarEnergyChanged.getToken()
+                : avatarEnergyChanged.getToken();
+    }
+
     /**
      * Get the event token for the hour in day changed event.
      * 
      * @return The event token.
      */
-    public EventToken<GameState, ValueChanged<Float>> onHourInDayChanged() {
+    public FloatChangedToken<GameState> onHourInDayChanged() {
         return hourInDayChanged.getToken();
     }
+
+    /**
+     * Get the event token for the hour in day changed event, with the given
+     * delivery.
+     * 
+     * @param delivery The delivery of the changes.
+     * @return The event token.
+     */
+    public FloatChangedToken<GameState> onHourInDayChanged(Delivery delivery) {
+        return delivery == Delivery.END_OF_FRAME ? coalescedHourInDayChanged.getToken()
+                : hourInDayChanged.getToken();
+    }
 }
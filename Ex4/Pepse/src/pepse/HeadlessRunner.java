@@ -0,0 +1,426 @@
+package pepse;
+
+import danogl.gui.ImageReader;
+import danogl.gui.SoundReader;
+import danogl.gui.UserInputListener;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.ImageRenderable;
+import danogl.util.Vector2;
+import pepse.util.ObjectPool;
+import pepse.util.RenderableCache;
+import pepse.util.Seed;
+import pepse.util.ServiceContainer;
+import pepse.util.Services;
+
+import java.awt.event.KeyEvent;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.function.IntPredicate;
+
+/**
+ * Runs the game without a window, for benchmarks and soak tests.
+ * The window and the input are replaced by stand-ins: a window of a fixed
+ * size, a scripted player walking right, jumping and warping time now and
+ * then, and an image reader loading nothing. The game is then updated in a
+ * tight loop, so the world streaming, the flora and the day and night all run
+ * as in a real game. The stand-ins are public, for benchmarks needing a
+ * game without a window.
+ * Every runner is a world of its own: it has its own services container,
+ * bound to the thread running it, and its own scripted player, so several
+ * worlds can run at once, each on its own thread.
+ * <p>
+ * Usage: {@code HeadlessRunner [frames] [seed] [step] [worlds]}, where step is
+ * the fixed time of a frame in seconds, or 0 to use the real time passed, and
+ * worlds is the number of worlds to run at once, of consecutive seeds.
+ * </p>
+ * <p>
+ * Or {@code HeadlessRunner check [screens] [seed]}, which walks the given
+ * number of window widths and fails unless the number of event handlers stays
+ * bounded, see {@link #checkListeners(int)}.
+ * </p>
+ *
+ * @author Oryan Hassidim
+ */
+public final class HeadlessRunner {
+    /**
+     * The default number of frames to run.
+     */
+    private static final int DEFAULT_FRAMES = 36_000;
+    /**
+     * The default seed.
+     */
+    private static final int DEFAULT_SEED = 1;
+    /**
+     * The default fixed time of a frame, in seconds.
+     */
+    private static final float DEFAULT_STEP = 1f / 60;
+    /**
+     * The size of the stand-in window.
+     */
+    private static final Vector2 WINDOW_SIZE = new Vector2(800, 600);
+    /**
+     * The number of frames between jumps of the scripted player.
+     */
+    private static final int JUMP_PERIOD = 90;
+    /**
+     * The number of frames the jump key is held.
+     */
+    private static final int JUMP_FRAMES = 5;
+    /**
+     * The number of frames between time warps of the scripted player.
+     */
+    private static final int WARP_PERIOD = 1_200;
+    /**
+     * The number of frames the time warp key is held.
+     */
+    private static final int WARP_FRAMES = 120;
+    /**
+     * The number of frames between progress reports.
+     */
+    private static final int REPORT_PERIOD = 6_000;
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+    /**
+     * The default number of window widths walked by the check.
+     */
+    private static final int DEFAULT_CHECK_SCREENS = 100;
+    /**
+     * The number of window widths walked by the check before its baseline is
+     * taken.
+     */
+    private static final int CHECK_BASELINE_SCREENS = 10;
+    /**
+     * The maximal number of frames the check waits for the avatar to walk a
+     * window width.
+     */
+    private static final int MAX_FRAMES_PER_SCREEN = 1_200;
+    /**
+     * The factor by which the handlers of the loaded chunks may exceed their
+     * number at the baseline, as forests vary.
+     */
+    private static final int CHUNK_LISTENERS_SLACK = 2;
+
+    /**
+     * The name of the world, in its reports.
+     */
+    private final String name;
+    /**
+     * The fixed time of a frame, in seconds, or 0 to use the real time passed.
+     */
+    private final float step;
+    /**
+     * The services of the world.
+     */
+    private final ServiceContainer services = new ServiceContainer();
+    /**
+     * The game manager, created by the first run.
+     */
+    private PepseGameManager manager;
+    /**
+     * The current frame, read by the scripted input.
+     */
+    private int frame = 0;
+
+    /**
+     * Creates a new world without a window.
+     *
+     * @param name the name of the world, in its reports
+     * @param seed the seed of the world
+     * @param step the fixed time of a frame in seconds, or 0 to use the real
+     *             time passed
+     */
+    public HeadlessRunner(String name, int seed, float step) {
+        this.name = name;
+        this.step = step;
+        services.addSingleton(Seed.class, () -> seed);
+    }
+
+    /**
+     * Runs the game without a window.
+     *
+     * @param args the number of frames, the seed, the fixed time of a frame and
+     *             the number of worlds, all optional
+     * @throws InterruptedException if interrupted while waiting for the worlds
+     */
+    public static void main(String[] args) throws InterruptedException {
+        System.setProperty("java.awt.headless", "true");
+        if (args.length > 0 && args[0].equals("check")) {
+            var screens = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CHECK_SCREENS;
+            var seed = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_SEED;
+            new HeadlessRunner("check", seed, DEFAULT_STEP).checkListeners(screens);
+            return;
+        }
+        var frames = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_FRAMES;
+        var seed = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_SEED;
+        var step = args.length > 2 ? Float.parseFloat(args[2]) : DEFAULT_STEP;
+        var worlds = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        if (worlds == 1) {
+            new HeadlessRunner("world", seed, step).run(frames);
+            return;
+        }
+        var threads = new ArrayList<Thread>();
+        for (int i = 0; i < worlds; i++) {
+            var runner = new HeadlessRunner("world " + i, seed + i, step);
+            threads.add(new Thread(() -> runner.run(frames), "world-" + i));
+        }
+        threads.forEach(Thread::start);
+        for (var thread : threads) {
+            thread.join();
+        }
+    }
+
+    /**
+     * Runs frames of the world on the calling thread, reporting the progress
+     * now and then. The first run creates the game.
+     *
+     * @param frames the number of frames
+     */
+    public void run(int frames) {
+        var previous = Services.current();
+        Services.bind(services);
+        try {
+            if (manager == null)
+                start();
+            var start = System.nanoTime();
+            var last = start;
+            for (int i = 0; i < frames; i++) {
+                last = update(last);
+                if ((i + 1) % REPORT_PERIOD == 0)
+                    report(i + 1, System.nanoTime() - start);
+            }
+            if (frames % REPORT_PERIOD != 0)
+                report(frames, System.nanoTime() - start);
+        } finally {
+            Services.bind(previous);
+        }
+    }
+
+    /**
+     * Walks the avatar the given number of window widths, and checks that the
+     * event handlers do not pile up: the game state has the same number of
+     * handlers besides a relay per loaded chunk all the way, and the loaded
+     * chunks never have more than twice the handlers they had at most over the
+     * first window widths. Prints the counts when done.
+     *
+     * @param screens the number of window widths to walk
+     * @throws IllegalStateException if the handlers pile up, or the avatar got
+     *                               stuck
+     */
+    public void checkListeners(int screens) throws IllegalStateException {
+        var previous = Services.current();
+        Services.bind(services);
+        try {
+            if (manager == null)
+                start();
+            var gameState = services.getService(GameState.class);
+            var startX = manager.avatarX();
+            var last = System.nanoTime();
+            var baseline = -1;
+            var maxChunkListeners = 0;
+            for (int screen = 1; screen <= screens; screen++) {
+                var target = startX + screen * WINDOW_SIZE.x();
+                for (int i = 0; manager.avatarX() < target; i++) {
+                    if (i == MAX_FRAMES_PER_SCREEN)
+                        throw new IllegalStateException("the avatar got stuck at x=" + manager.avatarX());
+                    last = update(last);
+                }
+                var listeners = gameStateListeners(gameState) - manager.loadedChunks();
+                var chunkListeners = manager.chunkListeners();
+                if (screen <= CHECK_BASELINE_SCREENS) {
+                    baseline = Math.max(baseline, listeners);
+                    maxChunkListeners = Math.max(maxChunkListeners, chunkListeners);
+                    continue;
+                }
+                if (listeners > baseline)
+                    throw new IllegalStateException("after " + screen + " screens the game state has "
+                            + listeners + " handlers besides the chunks, up from " + baseline);
+                if (chunkListeners > CHUNK_LISTENERS_SLACK * maxChunkListeners)
+                    throw new IllegalStateException("after " + screen + " screens the loaded chunks have "
+                            + chunkListeners + " handlers, up from at most " + maxChunkListeners);
+            }
+            System.out.printf("%s: walked %d screens to x=%.0f, game state handlers %d (%d chunks loaded), "
+                    + "chunk handlers %d (at most %d over the first %d screens)%n",
+                    name, screens, manager.avatarX(), gameStateListeners(gameState), manager.loadedChunks(),
+                    manager.chunkListeners(), maxChunkListeners, CHECK_BASELINE_SCREENS);
+        } finally {
+            Services.bind(previous);
+        }
+    }
+
+    /**
+     * Updates the game by a frame.
+     *
+     * @param last the time of the previous frame, in nanoseconds
+     * @return the time of this frame, in nanoseconds
+     */
+    private long update(long last) {
+        var now = System.nanoTime();
+        manager.update(step > 0 ? step : (float) ((now - last) / NANOS_PER_SECOND));
+        frame++;
+        return now;
+    }
+
+    /**
+     * Gets the number of handlers of all the events of the game state.
+     *
+     * @param gameState the game state
+     * @return the number of handlers
+     */
+    private static int gameStateListeners(GameState gameState) {
+        var count = 0;
+        for (var delivery : GameState.Delivery.values()) {
+            count += gameState.onAvatarStateChanged(delivery).listenerCount()
+                    + gameState.onAvatarEnergyChanged(delivery).listenerCount()
+                    + gameState.onHourInDayChanged(delivery).listenerCount();
+        }
+        return count;
+    }
+
+    /**
+     * Creates the game, in the services container of the world, which must be
+     * bound.
+     */
+    private void start() {
+        var window = windowStandIn(WINDOW_SIZE);
+        var input = inputStandIn(this::isScriptedKeyPressed);
+        manager = new PepseGameManager();
+        manager.initializeGame(imageReaderStandIn(window), new SoundReader(window), input, window);
+    }
+
+    /**
+     * Creates a stand-in window of a fixed size, doing nothing.
+     *
+     * @param windowDimensions the size of the window
+     * @return the window
+     */
+    public static WindowController windowStandIn(Vector2 windowDimensions) {
+        return standIn(WindowController.class, (proxy, method, args) -> {
+            if (method.getName().equals("getWindowDimensions"))
+                return windowDimensions;
+            return null;
+        });
+    }
+
+    /**
+     * Creates a stand-in input listener, pressing keys by a script.
+     *
+     * @param pressed whether a key, by key code, is pressed
+     * @return the input listener
+     */
+    public static UserInputListener inputStandIn(IntPredicate pressed) {
+        return standIn(UserInputListener.class, (proxy, method, args) -> {
+            if (method.getName().equals("isKeyPressed"))
+                return pressed.test((Integer) args[0]);
+            return null;
+        });
+    }
+
+    /**
+     * Creates a stand-in image reader, loading every image as a single
+     * transparent pixel.
+     *
+     * @param window the window
+     * @return the image reader
+     */
+    public static ImageReader imageReaderStandIn(WindowController window) {
+        return new ImageReader(window) {
+            @Override
+            public ImageRenderable readImage(String path, boolean isTopLeftPixelTransparent) {
+                return new ImageRenderable(new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB));
+            }
+        };
+    }
+
+    /**
+     * Checks whether the scripted player presses a key in the current frame.
+     *
+     * @param key the key code
+     * @return true if the key is pressed, false otherwise
+     */
+    private boolean isScriptedKeyPressed(int key) {
+        switch (key) {
+            case KeyEvent.VK_RIGHT:
+                return true;
+            case KeyEvent.VK_SPACE:
+                return frame % JUMP_PERIOD < JUMP_FRAMES;
+            case KeyEvent.VK_8:
+                return frame % WARP_PERIOD < WARP_FRAMES;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Prints the progress of the run. The pooled allocations and the
+     * renderable cache are shared by the worlds of the process.
+     *
+     * @param frames the number of frames run
+     * @param nanos  the time passed, in nanoseconds
+     */
+    private void report(int frames, long nanos) {
+        var seconds = nanos / NANOS_PER_SECOND;
+        var gameState = services.getService(GameState.class);
+        System.out.printf("%s: %d frames in %.2fs (%.0f fps), avatar at x=%.0f, hour %.1f, energy %.1f, "
+                + "%d chunks loaded, %d pooled allocations, %.1f%% renderable cache hits%n",
+                name, frames, seconds, frames / seconds, manager.avatarX(), gameState.getHourInDay(),
+                gameState.getAvatarEnergy(), manager.loadedChunks(), ObjectPool.totalAllocations(),
+                RenderableCache.hitRate() * 100);
+    }
+
+    /**
+     * Creates a stand-in implementation of an interface. Every method not
+     * answered by the handler returns the default value of its type.
+     *
+     * @param <T>     the type of the interface
+     * @param type    the interface
+     * @param handler the handler of the methods, returning null for the default
+     * @return the stand-in
+     */
+    private static <T> T standIn(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "toString":
+                            return "headless " + type.getSimpleName();
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            break;
+                    }
+                    var result = handler.invoke(proxy, method, args);
+                    return result != null ? result : defaultValue(method.getReturnType());
+                }));
+    }
+
+    /**
+     * Gets the default value of a type.
+     *
+     * @param type the type
+     * @return the default value, null for reference types
+     */
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class)
+            return false;
+        if (type == char.class)
+            return '\0';
+        if (type == byte.class)
+            return (byte) 0;
+        if (type == short.class)
+            return (short) 0;
+        if (type == int.class)
+            return 0;
+        if (type == long.class)
+            return 0L;
+        if (type == float.class)
+            return 0f;
+        if (type == double.class)
+            return 0d;
+        return null;
+    }
+}
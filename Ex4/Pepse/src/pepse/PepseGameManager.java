@@ -1,7 +1,6 @@
 package pepse;
 
 import danogl.GameManager;
-import danogl.GameObject;
 import danogl.collisions.Layer;
 import danogl.components.Transition;
 import danogl.components.Transition.TransitionType;
@@ -12,10 +11,15 @@ import danogl.gui.WindowController;
 import danogl.gui.rendering.Camera;
 import danogl.util.Vector2;
 import pepse.ui.EnergyView;
+import pepse.util.EventProfiler;
 import pepse.util.Seed;
+import pepse.util.ServiceHandle;
 import pepse.util.Services;
 import pepse.world.Avatar;
+import pepse.world.ChunkGenerator;
+import pepse.world.ChunkManager;
 import pepse.world.GroundManager;
+import pepse.world.GroundView;
 import pepse.world.Sky;
 import pepse.world.SkyFactory;
 import pepse.world.Terrain;
@@ -27,9 +31,8 @@ import pepse.world.daynight.Sun;
 import pepse.world.daynight.SunFactory;
 import pepse.world.daynight.SunHalo;
 import pepse.world.daynight.SunHaloFactory;
-import pepse.world.trees.Flora;
 import java.awt.event.KeyEvent;
-import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The game manager for the Pepse game.
@@ -65,7 +68,36 @@ public class PepseGameManager extends GameManager {
      * The frame rate.
      */
     private static final int FRAME_RATE = 60;
+    /**
+     * The distance of the edges of the loaded world from the avatar, in window
+     * widths.
+     */
+    private static final float LOADED_RANGE_FACTOR = 1.5f;
+    /**
+     * The distance of the edges of the visible world from the avatar, in window
+     * widths, with some margin.
+     */
+    private static final float VISIBLE_RANGE_FACTOR = 0.75f;
+    /**
+     * The maximal number of world objects added or removed per frame.
+     */
+    private static final int STREAMING_OBJECT_BUDGET = 400;
+    /**
+     * The share of a frame's time that may be spent adding or removing world
+     * objects.
+     */
+    private static final float STREAMING_FRAME_SHARE = 0.2f;
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
 
+    /**
+     * The handle of the window controller service, looked up every frame.
+     * Resolved when the game is initialized, in the container of the world,
+     * which may not be the one bound when the game manager was created.
+     */
+    private ServiceHandle<WindowController> windowController;
     /**
      * The input listener.
      */
@@ -79,13 +111,9 @@ public class PepseGameManager extends GameManager {
      */
     private Avatar avatar;
     /**
-     * the most left x coordinate of the game world.
-     */
-    private int minX;
-    /**
-     * the most right x coordinate of the game world.
+     * The chunk manager, streaming the world around the avatar.
      */
-    private int maxX;
+    private ChunkManager chunks;
 
     /**
      * Create a new game manager.
@@ -130,7 +158,14 @@ public class PepseGameManager extends GameManager {
         Services.addSingleton(WindowController.class, windowController);
 
         Services.addSingleton(SkyFactory.class, Sky::create);
-        Services.addSingleton(GroundManager.class, new Terrain());
+        // built in the background while the game starts, see initializeGame
+        Services.addLazySingleton(GroundManager.class, () -> {
+            var terrain = new Terrain();
+            // the ground is drawn from the tile map by a single view, so the blocks
+            // are only needed for collisions
+            terrain.setBlocksVisible(false);
+            return terrain;
+        }, WindowController.class, Seed.class);
         Services.addSingleton(CycleLength.class, new CycleLength() {
         });
         Services.addSingleton(NightFactory.class, Night::create);
@@ -139,61 +174,6 @@ public class PepseGameManager extends GameManager {
         Services.addService(GameState.class, () -> gameState);
     }
 
-    /**
-     * Create the game objects in the given range.
-     * 
-     * @param minX the minimum x coordinate
-     * @param maxX the maximum x coordinate
-     */
-    private void createInRange(int minX, int maxX) {
-        var gManager = Services.getService(GroundManager.class);
-        gManager.createInRange(minX, maxX)
-                .forEach(b -> gameObjects().addGameObject(b, STATIC_OBJECTS_LAYER));
-        var trees = Flora.createInRange(minX, maxX);
-        trees.forEach(t -> gameObjects().addGameObject(t, STATIC_OBJECTS_LAYER));
-        trees.stream().flatMap(Flora::createLeaves).forEach(
-                l -> gameObjects().addGameObject(l, LEAVES_LAYER));
-        trees.stream().flatMap(Flora::createFruits).forEach(
-                f -> gameObjects().addGameObject(f, FRUITS_LAYER));
-    }
-
-    /**
-     * Clear the game objects that are out of the given range.
-     * 
-     * @param layer the layer to clear
-     * @param minX  the minimum x coordinate
-     * @param maxX  the maximum x coordinate
-     */
-    private void clearOutOfRange(int layer, int minX, int maxX) {
-        var outOfBounds = new ArrayList<GameObject>();
-        for (var obj : gameObjects().objectsInLayer(layer))
-            if (obj.getCenter().x() < minX || obj.getCenter().x() > maxX)
-                outOfBounds.add(obj);
-        outOfBounds.forEach(b -> gameObjects().removeGameObject(b, layer));
-    }
-
-    /**
-     * Initialize the given range.
-     * 
-     * @param minX the minimum x coordinate
-     * @param maxX the maximum x coordinate
-     */
-    private void initRange(int minX, int maxX) {
-        clearOutOfRange(STATIC_OBJECTS_LAYER, minX, maxX);
-        clearOutOfRange(LEAVES_LAYER, minX, maxX);
-        clearOutOfRange(FRUITS_LAYER, minX, maxX);
-
-        if (minX < this.minX) {
-            createInRange(minX, this.minX);
-        }
-        if (maxX > this.maxX) {
-            createInRange(this.maxX, maxX);
-        }
-
-        this.minX = minX;
-        this.maxX = maxX;
-    }
-
     /**
      * The method will be called once when a GameGUIComponent is created,
      * and again after every invocation of windowController.resetGame().
@@ -217,11 +197,18 @@ public class PepseGameManager extends GameManager {
             ImageReader imageReader, SoundReader soundReader,
             UserInputListener inputListener, WindowController windowController) {
         configureServices(imageReader, soundReader, inputListener, windowController);
+        // the lazy services, like the terrain and its noise tables, are built on
+        // other threads while the sky and the avatar are created here, and the
+        // first use of each waits for it if needed
+        Services.current().warmUp(ForkJoinPool.commonPool());
         super.initializeGame(imageReader, soundReader, inputListener, windowController);
         this.inputListener = Services.getService(UserInputListener.class);
+        this.windowController = Services.handle(WindowController.class);
         windowController = Services.getService(WindowController.class);
 
         gameState = new GameState(AvatarState.IDLE, 100, 12);
+        // created before the sun, which waits for the terrain
+        avatar = new Avatar(new Vector2(100, 100));
         gameObjects().addGameObject(
                 Services.getService(SkyFactory.class).provide(), Layer.BACKGROUND);
         gameObjects().addGameObject(
@@ -230,13 +217,19 @@ public class PepseGameManager extends GameManager {
         gameObjects().addGameObject(sun, Layer.BACKGROUND);
         var sunHalo = Services.getService(SunHaloFactory.class).provide(sun);
         gameObjects().addGameObject(sunHalo, Layer.BACKGROUND);
-        avatar = new Avatar(new Vector2(100, 100));
         gameObjects().addGameObject(avatar, Layer.DEFAULT);
         gameObjects().addGameObject(EnergyView.create(), Layer.UI);
-        var x = (int) windowController.getWindowDimensions().x();
-        createInRange(-x, 2 * x);
-        this.minX = -x;
-        this.maxX = 2 * x;
+        if (chunks != null)
+            chunks.close();
+        var generator = new ChunkGenerator(Services.getService(GroundManager.class),
+                Services.getService(Seed.class).getSeed());
+        chunks = new ChunkManager(gameObjects(), STATIC_OBJECTS_LAYER, LEAVES_LAYER, FRUITS_LAYER, generator);
+        chunks.setBudget(STREAMING_OBJECT_BUDGET,
+                (long) (STREAMING_FRAME_SHARE * NANOS_PER_SECOND / FRAME_RATE));
+        var range = windowController.getWindowDimensions().x() * LOADED_RANGE_FACTOR;
+        var x = avatar.getCenter().x();
+        chunks.loadRange((int) (x - range), (int) (x + range), ZERO);
+        chunks.loadRangeNow((int) (x - range), (int) (x + range));
 
         new Transition<Float>(
                 sun, gameState::setHourInDay, 0f, 24f,
@@ -245,6 +238,10 @@ public class PepseGameManager extends GameManager {
                 TransitionType.TRANSITION_LOOP, null);
         this.setCamera(new Camera(avatar, Vector2.ZERO,
                 windowController.getWindowDimensions(), windowController.getWindowDimensions()));
+        gameObjects().addGameObject(
+                GroundView.create(Services.getService(GroundManager.class).getTileMap(), generator.getBaker(),
+                        camera()),
+                Layer.BACKGROUND);
         windowController.setTargetFramerate(FRAME_RATE);
     }
 
@@ -274,13 +271,46 @@ public class PepseGameManager extends GameManager {
         if (inputListener.isKeyPressed(KeyEvent.VK_P))
             gameState.setAvatarEnergy(100);
 
-        var pos = avatar.getCenter().x();
-        var x = (int) Services.getService(WindowController.class).getWindowDimensions().x();
+        var windowWidth = windowController.get().getWindowDimensions().x();
+        var x = avatar.getCenter().x();
+        var range = windowWidth * LOADED_RANGE_FACTOR;
+        chunks.loadRange((int) (x - range), (int) (x + range), avatar.getVelocity().x());
+        // the visible part of the world must never be missing, even if its
+        // generation has not finished in the background yet
+        range = windowWidth * VISIBLE_RANGE_FACTOR;
+        chunks.loadRangeNow((int) (x - range), (int) (x + range));
 
-        if (pos < minX + x)
-            initRange(minX - x, maxX - x);
-        else if (pos > maxX - x)
-            initRange(minX + x, maxX + x);
+        // the visuals following the game state are updated once, with the last
+        // values of the frame
+        gameState.dispatchPendingChanges();
+        EventProfiler.dumpPeriodically();
+    }
+
+    /**
+     * Gets the x coordinate of the center of the avatar.
+     * 
+     * @return the x coordinate of the avatar
+     */
+    float avatarX() {
+        return avatar.getCenter().x();
+    }
+
+    /**
+     * Gets the number of chunks of the world currently loaded.
+     * 
+     * @return the number of loaded chunks
+     */
+    int loadedChunks() {
+        return chunks.loadedChunks();
+    }
+
+    /**
+     * Gets the number of handlers of the objects of the loaded chunks.
+     * 
+     * @return the number of handlers
+     */
+    int chunkListeners() {
+        return chunks.chunkListeners();
     }
 
     /**
@@ -5,6 +5,7 @@ import danogl.components.CoordinateSpace;
 import danogl.gui.rendering.TextRenderable;
 import danogl.util.Vector2;
 import pepse.GameState;
+import pepse.GameState.Delivery;
 import pepse.util.Services;
 
 /**
@@ -29,8 +30,8 @@ public final class EnergyView {
         var textRenderable = new TextRenderable("");
         energyView.renderer().setRenderable(textRenderable);
         var gameState = Services.getService(GameState.class);
-        gameState.onAvatarEnergyChanged().add(
-                (avatar, args) -> textRenderable.setString(args.getArgs().getNewValue() + "%"));
+        gameState.onAvatarEnergyChanged(Delivery.END_OF_FRAME).add(
+                (avatar, oldEnergy, newEnergy) -> textRenderable.setString(newEnergy + "%"));
         energyView.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         return energyView;
     }
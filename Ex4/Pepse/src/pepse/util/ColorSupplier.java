@@ -2,6 +2,7 @@ package pepse.util;
 
 import java.awt.*;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provides procedurally-generated colors around a pivot.
@@ -10,6 +11,31 @@ import java.util.Random;
 public final class ColorSupplier {
     private static final int DEFAULT_COLOR_DELTA = 10;
     private final static Random random = new Random();
+    private static final int PALETTE_LEVELS = 6;
+    private static final int PALETTE_SIZE = PALETTE_LEVELS * PALETTE_LEVELS * PALETTE_LEVELS;
+    private static final int COLOR_STREAM = 0;
+    private static final ConcurrentHashMap<Long, Color[]> palettes = new ConcurrentHashMap<>();
+    private static volatile Palette lastPalette = null;
+
+    /**
+     * A palette with its key, remembered so asking again for the same palette
+     * boxes no key.
+     */
+    private static final class Palette {
+        private final long key;
+        private final Color[] colors;
+
+        /**
+         * Creates a new palette entry.
+         *
+         * @param key The key of the palette.
+         * @param colors The colors of the palette.
+         */
+        private Palette(long key, Color[] colors) {
+            this.key = key;
+            this.colors = colors;
+        }
+    }
 
     /**
      * Returns a color similar to baseColor, with a default delta.
@@ -47,4 +73,135 @@ public final class ColorSupplier {
         int channel = random.nextInt(max-min+1) + min;
         return Math.min(255, Math.max(channel, 0));
     }
+
+    /**
+     * Returns a color similar to baseColor, with a default delta, determined only
+     * by a seed and a position. The same arguments always give the same color
+     * instance, from any thread, without any shared mutable state.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param seed The seed of the world.
+     * @param x The x key of the position, usually a column.
+     * @param y The y key of the position, usually a row.
+     * @return A color similar to baseColor, from its interned palette.
+     */
+    public static Color approximateColor(Color baseColor, long seed, int x, int y) {
+        return approximateColor(baseColor, DEFAULT_COLOR_DELTA, seed, x, y);
+    }
+
+    /**
+     * Returns a color similar to baseColor, with a difference of at most colorDelta,
+     * determined only by a seed and a position.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) between the color and the base color.
+     * @param seed The seed of the world.
+     * @param x The x key of the position, usually a column.
+     * @param y The y key of the position, usually a row.
+     * @return A color similar to baseColor, from its interned palette.
+     */
+    public static Color approximateColor(Color baseColor, int colorDelta, long seed, int x, int y) {
+        return paletteColor(baseColor, colorDelta, paletteIndex(seed, x, y));
+    }
+
+    /**
+     * Returns the number of colors in the palette of a base color.
+     *
+     * @return The size of a palette.
+     */
+    public static int paletteSize() {
+        return PALETTE_SIZE;
+    }
+
+    /**
+     * Returns the index of the palette color of a position. A counter-based hash:
+     * the same arguments always give the same index.
+     *
+     * @param seed The seed of the world.
+     * @param x The x key of the position.
+     * @param y The y key of the position.
+     * @return An index in [0, paletteSize()).
+     */
+    public static int paletteIndex(long seed, int x, int y) {
+        return StatelessRandom.nextInt(seed, COLOR_STREAM, x, y, 0, PALETTE_SIZE);
+    }
+
+    /**
+     * Returns a color of the palette of a base color. The palette spans colorDelta
+     * around every channel of the base color in a few even steps, and is built
+     * once per base color and delta.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) between the color and the base color.
+     * @param index The index of the color, in [0, paletteSize()).
+     * @return The color, the same instance for the same arguments.
+     */
+    public static Color paletteColor(Color baseColor, int colorDelta, int index) {
+        return palette(baseColor, colorDelta)[index];
+    }
+
+    /**
+     * Returns the palette of a base color, with a default delta.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @return The palette, shared and not to be modified.
+     * @see #palette(Color, int)
+     */
+    public static Color[] palette(Color baseColor) {
+        return palette(baseColor, DEFAULT_COLOR_DELTA);
+    }
+
+    /**
+     * Returns the palette of a base color, indexed as by paletteIndex. Callers
+     * drawing many colors of one base color should keep the palette, and index
+     * it directly.
+     *
+     * @param baseColor A color that we wish to approximate.
+     * @param colorDelta The maximal difference (per channel) between the color and the base color.
+     * @return The palette, shared and not to be modified.
+     */
+    public static Color[] palette(Color baseColor, int colorDelta) {
+        long key = ((long) colorDelta << 32) | (baseColor.getRGB() & 0xFFFFFFFFL);
+        var last = lastPalette;
+        if (last != null && last.key == key)
+            return last.colors;
+        var palette = palettes.computeIfAbsent(key, k -> buildPalette(baseColor, colorDelta));
+        lastPalette = new Palette(key, palette);
+        return palette;
+    }
+
+    /**
+     * Builds the palette of a base color.
+     *
+     * @param baseColor The base color.
+     * @param colorDelta The maximal difference (per channel) from the base color.
+     * @return The palette, indexed by red, then green, then blue level.
+     */
+    private static Color[] buildPalette(Color baseColor, int colorDelta) {
+        var palette = new Color[PALETTE_SIZE];
+        for (int r = 0; r < PALETTE_LEVELS; r++) {
+            for (int g = 0; g < PALETTE_LEVELS; g++) {
+                for (int b = 0; b < PALETTE_LEVELS; b++) {
+                    palette[(r * PALETTE_LEVELS + g) * PALETTE_LEVELS + b] = new Color(
+                            levelChannel(baseColor.getRed(), colorDelta, r),
+                            levelChannel(baseColor.getGreen(), colorDelta, g),
+                            levelChannel(baseColor.getBlue(), colorDelta, b));
+                }
+            }
+        }
+        return palette;
+    }
+
+    /**
+     * Returns the value of a channel at a palette level.
+     *
+     * @param base The base value of the channel.
+     * @param colorDelta The maximal difference from the base value.
+     * @param level The level, in [0, PALETTE_LEVELS).
+     * @return The value of the channel, clipped to [0,255].
+     */
+    private static int levelChannel(int base, int colorDelta, int level) {
+        int channel = base - colorDelta + Math.round(2f * colorDelta * level / (PALETTE_LEVELS - 1));
+        return Math.min(255, Math.max(channel, 0));
+    }
 }
@@ -1,11 +1,18 @@
 package pepse.util;
 
-import java.util.HashSet;
-
 /**
  * Class for representing and handling events.
  * The event is a collection of event handlers, and an event token for adding
  * and removing event handlers.
+ * The handlers are kept in a {@link SubscriptionList}, so adding and removing
+ * a handler take amortized constant time, invoking is a plain loop over an
+ * array, handlers may add or remove handlers while the event is invoked, and
+ * handlers are called in the order they were added.
+ * Handlers may be rate limited, which the event enforces while invoking. The
+ * last invocation held back from a handler is delivered by {@link #flush()}
+ * once its interval passed.
+ * When the {@link EventProfiler} is enabled, the time spent in every handler is
+ * recorded.
  * 
  * @param <S> The sender type.
  * @param <A> The argument type.
@@ -13,9 +20,50 @@ import java.util.HashSet;
  */
 public class Event<S, A> {
     /**
-     * The event handlers collection.
+     * A registered event handler.
      */
-    private HashSet<EvnentHandler<S, A>> listeners = new HashSet<>();
+    private static final class Subscription {
+        /**
+         * The event handler.
+         */
+        private final EvnentHandler<?, ?> handler;
+        /**
+         * The rate limit of the handler.
+         */
+        private final RateLimit limit;
+        /**
+         * The sender of the last invocation held back by the rate limit.
+         */
+        private Object heldSender;
+        /**
+         * The arguments of the last invocation held back by the rate limit.
+         */
+        private Object heldArgs;
+        /**
+         * The profiler statistics of the handler, null if not profiled.
+         */
+        private final EventProfiler.HandlerStats stats = EventProfiler.statsForCaller();
+
+        /**
+         * Creates a new subscription.
+         * 
+         * @param handler The event handler.
+         * @param limit   The rate limit of the handler.
+         */
+        private Subscription(EvnentHandler<?, ?> handler, RateLimit limit) {
+            this.handler = handler;
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * The subscriptions, in the order they were added.
+     */
+    private final SubscriptionList<Subscription> listeners = new SubscriptionList<>(s -> s.handler);
+    /**
+     * Whether an invocation may have been held back from a handler.
+     */
+    private boolean held = false;
 
     /**
      * The event token for adding and removing event handlers.
@@ -23,15 +71,32 @@ public class Event<S, A> {
     private EventToken<S, A> token = new EventToken<S, A>() {
         @Override
         public void add(EvnentHandler<S, A> handler) {
-            listeners.add(handler);
+            addListener(handler, RateLimit.NONE);
+        }
+
+        @Override
+        public void add(EvnentHandler<S, A> handler, float maxRate) {
+            addListener(handler, RateLimit.of(maxRate));
         }
 
         @Override
         public void remove(EvnentHandler<S, A> handler) {
-            listeners.remove(handler);
+            removeListener(handler);
+        }
+
+        @Override
+        public int listenerCount() {
+            return listeners.size();
         }
     };
 
+    /**
+     * Creates a new event.
+     */
+    public Event() {
+        EventProfiler.trackEvent(this);
+    }
+
     /**
      * Gets the event token.
      * 
@@ -42,14 +107,130 @@ public class Event<S, A> {
     }
 
     /**
-     * Invokes the event.
+     * Gets the number of event handlers.
+     * 
+     * @return The number of event handlers.
+     */
+    public int listenerCount() {
+        return listeners.size();
+    }
+
+    /**
+     * Removes all the event handlers.
+     */
+    public void clear() {
+        if (EventProfiler.ENABLED)
+            listeners.forEach(listener -> EventProfiler.retire(listener.stats));
+        listeners.clear();
+        held = false;
+    }
+
+    /**
+     * Invokes the event. The handlers added or removed by the handlers take
+     * effect from the next invocation.
      * 
      * @param sender The sender.
      * @param args   The event arguments.
      */
     public void invoke(S sender, A args) {
-        for (var listener : listeners) {
-            listener.handle(sender, new EventArgs<A>(args));
+        if (listeners.size() == 0)
+            return;
+        var eventArgs = new EventArgs<A>(args);
+        var snapshot = listeners.begin();
+        var end = listeners.end();
+        try {
+            for (int i = 0; i < end; i++) {
+                var listener = (Subscription) snapshot[i];
+                if (listener == null)
+                    continue;
+                if (!listener.limit.tryPass()) {
+                    listener.heldSender = sender;
+                    listener.heldArgs = args;
+                    held = true;
+                    continue;
+                }
+                listener.heldSender = null;
+                listener.heldArgs = null;
+                deliver(listener, sender, eventArgs);
+            }
+        } finally {
+            listeners.finish();
+        }
+    }
+
+    /**
+     * Delivers to the rate limited handlers the last invocation held back from
+     * them, if their interval passed since the last one delivered. Should be
+     * called every frame, so the last invocation is never lost.
+     */
+    @SuppressWarnings("unchecked")
+    public void flush() {
+        if (!held)
+            return;
+        held = false;
+        var snapshot = listeners.begin();
+        var end = listeners.end();
+        try {
+            for (int i = 0; i < end; i++) {
+                var listener = (Subscription) snapshot[i];
+                if (listener == null || !listener.limit.isHeld())
+                    continue;
+                if (!listener.limit.tryFlush()) {
+                    held = true;
+                    continue;
+                }
+                var sender = (S) listener.heldSender;
+                var args = (A) listener.heldArgs;
+                listener.heldSender = null;
+                listener.heldArgs = null;
+                deliver(listener, sender, new EventArgs<A>(args));
+            }
+        } finally {
+            listeners.finish();
+        }
+    }
+
+    /**
+     * Delivers an invocation to a handler.
+     * 
+     * @param listener  The subscription of the handler.
+     * @param sender    The sender.
+     * @param eventArgs The event arguments.
+     */
+    @SuppressWarnings("unchecked")
+    private void deliver(Subscription listener, S sender, EventArgs<A> eventArgs) {
+        if (EventProfiler.ENABLED && listener.stats != null) {
+            var start = EventProfiler.start();
+            try {
+                ((EvnentHandler<S, A>) listener.handler).handle(sender, eventArgs);
+            } finally {
+                EventProfiler.stop(listener.stats, start);
+            }
+        } else {
+            ((EvnentHandler<S, A>) listener.handler).handle(sender, eventArgs);
         }
     }
+
+    /**
+     * Adds an event handler, unless it was already added.
+     * 
+     * @param handler The event handler.
+     * @param limit   The rate limit of the handler.
+     */
+    private void addListener(EvnentHandler<S, A> handler, RateLimit limit) {
+        Validator.validateNotNull(handler, "handler");
+        if (!listeners.contains(handler))
+            listeners.add(handler, new Subscription(handler, limit));
+    }
+
+    /**
+     * Removes an event handler, if it was added.
+     * 
+     * @param handler The event handler.
+     */
+    private void removeListener(EvnentHandler<S, A> handler) {
+        var removed = listeners.remove(handler);
+        if (removed != null)
+            EventProfiler.retire(removed.stats);
+    }
 }
@@ -0,0 +1,474 @@
+package pepse.util;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A profiler of event dispatch, attributing the time spent in handlers to the
+ * code that added them.
+ * Every subscription has its own statistics, labeled by its source, the first
+ * method outside this package on the stack when it was added, such as
+ * Flora.createLeaves, and a number telling apart the subscriptions of the same
+ * source. When a handler is removed, its statistics are merged into a single
+ * row of the removed handlers of its source, so unloaded chunks do not pile up
+ * rows and their cost is not lost.
+ * The time a handler spends invoking other events, as a relay does, is counted
+ * by the handlers of those events and not again as the handler's own time, and
+ * such handlers are marked as relays. Events are attributed the same way as
+ * handlers to the code that created them, to count their handlers.
+ * The profiler is enabled by the pepse.profileEvents system property, read
+ * once. When disabled, the events test a constant and the JIT removes the
+ * profiling code, so it costs nothing.
+ * The profiler is thread-safe, so worlds running on several threads can be
+ * profiled together. The statistics of a subscription are recorded by the
+ * thread invoking its event, and the nesting of handlers is tracked per
+ * thread.
+ *
+ * @author Oryan Hassidim
+ */
+public final class EventProfiler {
+    /**
+     * Whether the profiler is enabled.
+     */
+    static final boolean ENABLED = Boolean.getBoolean("pepse.profileEvents");
+
+    /**
+     * The statistics of a single subscription, or of the removed subscriptions
+     * of a source.
+     */
+    public static final class HandlerStats {
+        /**
+         * The source of the handler.
+         */
+        private final String source;
+        /**
+         * The number of the subscription among the subscriptions of the
+         * profiler, or {@link #REMOVED} for the removed subscriptions of the
+         * source.
+         */
+        private final int id;
+        /**
+         * The number of subscriptions merged into the statistics.
+         */
+        private int subscriptions = 1;
+        /**
+         * The number of invocations.
+         */
+        private long invocations = 0;
+        /**
+         * The total time spent in the handler, in nanoseconds.
+         */
+        private long totalNanos = 0;
+        /**
+         * The time spent in the handler outside the events it invoked, in
+         * nanoseconds.
+         */
+        private long selfNanos = 0;
+        /**
+         * The longest single invocation, in nanoseconds.
+         */
+        private long maxNanos = 0;
+        /**
+         * Whether the handler invoked other events.
+         */
+        private boolean relay = false;
+
+        /**
+         * Creates new handler statistics.
+         *
+         * @param source the source of the handler
+         * @param id     the number of the subscription
+         */
+        private HandlerStats(String source, int id) {
+            this.source = source;
+            this.id = id;
+        }
+
+        /**
+         * Records an invocation.
+         *
+         * @param nanos       the time spent in the handler, in nanoseconds
+         * @param nestedNanos the time spent in the events the handler invoked,
+         *                    in nanoseconds
+         */
+        private void record(long nanos, long nestedNanos) {
+            invocations++;
+            totalNanos += nanos;
+            selfNanos += nanos - nestedNanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            relay |= nestedNanos > 0;
+        }
+
+        /**
+         * Merges the statistics of a removed subscription.
+         *
+         * @param other the statistics of the removed subscription
+         */
+        private void merge(HandlerStats other) {
+            subscriptions += other.subscriptions;
+            invocations += other.invocations;
+            totalNanos += other.totalNanos;
+            selfNanos += other.selfNanos;
+            maxNanos = Math.max(maxNanos, other.maxNanos);
+            relay |= other.relay;
+        }
+
+        /**
+         * Forgets the recorded invocations.
+         */
+        private void clear() {
+            invocations = 0;
+            totalNanos = 0;
+            selfNanos = 0;
+            maxNanos = 0;
+        }
+
+        /**
+         * Gets the source of the handler.
+         *
+         * @return the source, as class.method
+         */
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * Gets the number of the subscription, telling apart the subscriptions
+         * of the same source.
+         *
+         * @return the number, or a negative number for the removed
+         *         subscriptions of the source
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Gets the number of subscriptions in the statistics.
+         *
+         * @return 1 for a live subscription, or the number of removed ones
+         */
+        public int getSubscriptions() {
+            return subscriptions;
+        }
+
+        /**
+         * Gets the number of invocations.
+         *
+         * @return the number of invocations
+         */
+        public long getInvocations() {
+            return invocations;
+        }
+
+        /**
+         * Gets the total time spent in the handler, including the events it
+         * invoked.
+         *
+         * @return the total time, in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * Gets the time spent in the handler outside the events it invoked.
+         *
+         * @return the time, in nanoseconds
+         */
+        public long getSelfNanos() {
+            return selfNanos;
+        }
+
+        /**
+         * Gets the longest single invocation.
+         *
+         * @return the longest invocation, in nanoseconds
+         */
+        public long getMaxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * Checks whether the handler invoked other events, whose handlers count
+         * that time.
+         *
+         * @return true if the handler is a relay, false otherwise
+         */
+        public boolean isRelay() {
+            return relay;
+        }
+
+        /**
+         * Returns a short report of the statistics.
+         *
+         * @return the report
+         */
+        @Override
+        public String toString() {
+            var name = id == REMOVED ? source + " (" + subscriptions + " removed)" : source + " #" + id;
+            return name + (relay ? " [relay]" : "") + ": " + invocations + " calls, "
+                    + selfNanos / NANOS_PER_MICRO + "us self, " + totalNanos / NANOS_PER_MICRO + "us total, "
+                    + maxNanos / NANOS_PER_MICRO + "us max";
+        }
+    }
+
+    /**
+     * The handlers being invoked by a thread.
+     */
+    private static final class Nesting {
+        /**
+         * The time spent in nested events by the handlers being invoked,
+         * innermost last.
+         */
+        private long[] nested = new long[8];
+        /**
+         * The number of handlers being invoked.
+         */
+        private int depth = 0;
+    }
+
+    /**
+     * The number of nanoseconds in a microsecond.
+     */
+    private static final long NANOS_PER_MICRO = 1_000L;
+    /**
+     * The time between periodic dumps, in nanoseconds.
+     */
+    private static final long DUMP_INTERVAL = 5_000_000_000L;
+    /**
+     * The source of handlers and events added outside the game's code.
+     */
+    private static final String UNKNOWN_SOURCE = "unknown";
+    /**
+     * The number of the statistics of removed subscriptions.
+     */
+    private static final int REMOVED = -1;
+    /**
+     * The number of handlers printed by a dump, the most expensive.
+     */
+    private static final int DUMP_HANDLERS = 20;
+
+    /**
+     * The statistics of the live subscriptions.
+     */
+    private static final Set<HandlerStats> HANDLERS = ConcurrentHashMap.newKeySet();
+    /**
+     * The statistics of the removed subscriptions, by source. Merged into while
+     * locked.
+     */
+    private static final Map<String, HandlerStats> REMOVED_HANDLERS = new ConcurrentHashMap<>();
+    /**
+     * The live events, with their sources. Iterated while locked.
+     */
+    private static final Map<Object, String> EVENTS = Collections.synchronizedMap(new WeakHashMap<>());
+    /**
+     * The time of the last periodic dump, in nanoseconds.
+     */
+    private static final AtomicLong LAST_DUMP = new AtomicLong(System.nanoTime());
+    /**
+     * The number of the next subscription.
+     */
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+    /**
+     * The handlers being invoked, by thread.
+     */
+    private static final ThreadLocal<Nesting> NESTING = ThreadLocal.withInitial(Nesting::new);
+
+    /**
+     * A private constructor to prevent instantiation.
+     */
+    private EventProfiler() {
+    }
+
+    /**
+     * Checks whether the profiler is enabled.
+     *
+     * @return true if the profiler is enabled, false otherwise
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Creates the statistics of a subscription being added, attributed to the
+     * caller.
+     *
+     * @return the statistics, or null if the profiler is disabled
+     */
+    static HandlerStats statsForCaller() {
+        if (!ENABLED)
+            return null;
+        var stats = new HandlerStats(callerSource(), NEXT_ID.getAndIncrement());
+        HANDLERS.add(stats);
+        return stats;
+    }
+
+    /**
+     * Merges the statistics of a removed subscription into the removed
+     * subscriptions of its source.
+     *
+     * @param stats the statistics of the subscription, may be null
+     */
+    static void retire(HandlerStats stats) {
+        if (stats == null || !HANDLERS.remove(stats))
+            return;
+        var removed = REMOVED_HANDLERS.computeIfAbsent(stats.source, source -> {
+            var created = new HandlerStats(source, REMOVED);
+            created.subscriptions = 0;
+            return created;
+        });
+        synchronized (removed) {
+            removed.merge(stats);
+        }
+    }
+
+    /**
+     * Starts timing the invocation of a handler.
+     *
+     * @return the start time, to pass to {@link #stop(HandlerStats, long)}
+     */
+    static long start() {
+        var nesting = NESTING.get();
+        if (nesting.depth == nesting.nested.length)
+            nesting.nested = Arrays.copyOf(nesting.nested, 2 * nesting.depth);
+        nesting.nested[nesting.depth++] = 0;
+        return System.nanoTime();
+    }
+
+    /**
+     * Stops timing the invocation of a handler, and records it. The time is
+     * counted as nested time of the handler invoking the event, if any.
+     *
+     * @param stats the statistics of the handler
+     * @param start the start time returned by {@link #start()}
+     */
+    static void stop(HandlerStats stats, long start) {
+        var nanos = System.nanoTime() - start;
+        var nesting = NESTING.get();
+        stats.record(nanos, nesting.nested[--nesting.depth]);
+        if (nesting.depth > 0)
+            nesting.nested[nesting.depth - 1] += nanos;
+    }
+
+    /**
+     * Tracks a new event, attributed to the caller.
+     *
+     * @param event the event
+     */
+    static void trackEvent(Object event) {
+        if (ENABLED)
+            EVENTS.put(event, callerSource());
+    }
+
+    /**
+     * Gets the statistics of the live subscriptions and of the removed ones by
+     * source, from the most expensive by their own time.
+     *
+     * @return the statistics
+     */
+    public static List<HandlerStats> handlers() {
+        var result = new ArrayList<>(HANDLERS);
+        result.addAll(REMOVED_HANDLERS.values());
+        result.sort(Comparator.comparingLong(HandlerStats::getSelfNanos).reversed());
+        return result;
+    }
+
+    /**
+     * Gets the number of handlers of the live events, summed by the source of
+     * the events.
+     *
+     * @return the number of handlers, by source
+     */
+    public static Map<String, Integer> listenerCounts() {
+        var result = new LinkedHashMap<String, Integer>();
+        synchronized (EVENTS) {
+            for (var entry : EVENTS.entrySet()) {
+                result.merge(entry.getValue(), listenerCount(entry.getKey()), Integer::sum);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Forgets all the handler statistics.
+     */
+    public static void reset() {
+        HANDLERS.forEach(HandlerStats::clear);
+        REMOVED_HANDLERS.clear();
+    }
+
+    /**
+     * Prints a report of the handlers and the events.
+     *
+     * @param out the stream to print to
+     */
+    public static void dump(PrintStream out) {
+        var handlers = handlers();
+        out.println("event handlers:");
+        for (var stats : handlers.subList(0, Math.min(DUMP_HANDLERS, handlers.size()))) {
+            out.println("  " + stats);
+        }
+        if (handlers.size() > DUMP_HANDLERS)
+            out.println("  ... " + (handlers.size() - DUMP_HANDLERS) + " more");
+        out.println("event listeners:");
+        listenerCounts().forEach((source, count) -> out.println("  " + source + ": " + count));
+    }
+
+    /**
+     * Prints a report to the standard error every few seconds, if the profiler
+     * is enabled. Meant to be called every frame.
+     */
+    public static void dumpPeriodically() {
+        if (!ENABLED)
+            return;
+        var now = System.nanoTime();
+        var last = LAST_DUMP.get();
+        // a single thread of those calling at once dumps
+        if (now - last < DUMP_INTERVAL || !LAST_DUMP.compareAndSet(last, now))
+            return;
+        dump(System.err);
+    }
+
+    /**
+     * Gets the number of handlers of an event.
+     *
+     * @param event the event
+     * @return the number of handlers
+     */
+    private static int listenerCount(Object event) {
+        if (event instanceof Event)
+            return ((Event<?, ?>) event).listenerCount();
+        if (event instanceof FloatChangedEvent)
+            return ((FloatChangedEvent<?>) event).listenerCount();
+        return 0;
+    }
+
+    /**
+     * Finds the first method outside this package on the stack.
+     *
+     * @return the method, as class.method
+     */
+    private static String callerSource() {
+        var packagePrefix = EventProfiler.class.getPackageName() + ".";
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> !frame.getClassName().startsWith(packagePrefix))
+                .findFirst()
+                .map(frame -> {
+                    var className = frame.getClassName();
+                    return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                })
+                .orElse(UNKNOWN_SOURCE));
+    }
+}
@@ -0,0 +1,87 @@
+package pepse.util;
+
+import java.util.ArrayList;
+
+/**
+ * Class for owning event subscriptions for a limited lifetime.
+ * Handlers added through a scope are all removed when the scope is closed, so
+ * an owner with a lifetime shorter than the event, such as a chunk of the world
+ * or a game object, never leaves handlers behind.
+ * 
+ * @author Oryan Hassidim
+ */
+public class EventScope implements AutoCloseable {
+    /**
+     * The actions removing the handlers added through the scope.
+     */
+    private final ArrayList<Runnable> removers = new ArrayList<>();
+    /**
+     * Whether the scope is closed.
+     */
+    private boolean closed = false;
+
+    /**
+     * Adds an event handler for the lifetime of the scope. Adding to a closed
+     * scope does nothing, as its owner is already gone.
+     * 
+     * @param <S>     The sender type.
+     * @param <A>     The argument type.
+     * @param token   The event token.
+     * @param handler The event handler.
+     */
+    public <S, A> void add(EventToken<S, A> token, EvnentHandler<S, A> handler) {
+        Validator.validateNotNull(token, "token");
+        Validator.validateNotNull(handler, "handler");
+        if (closed)
+            return;
+        token.add(handler);
+        removers.add(() -> token.remove(handler));
+    }
+
+    /**
+     * Adds a float changed handler for the lifetime of the scope. Adding to a
+     * closed scope does nothing, as its owner is already gone.
+     * 
+     * @param <S>     The sender type.
+     * @param token   The float changed token.
+     * @param handler The handler.
+     */
+    public <S> void add(FloatChangedToken<S> token, FloatChangedHandler<S> handler) {
+        Validator.validateNotNull(token, "token");
+        Validator.validateNotNull(handler, "handler");
+        if (closed)
+            return;
+        token.add(handler);
+        removers.add(() -> token.remove(handler));
+    }
+
+    /**
+     * Gets the number of handlers added through the scope.
+     * 
+     * @return The number of handlers.
+     */
+    public int size() {
+        return removers.size();
+    }
+
+    /**
+     * Checks whether the scope is closed.
+     * 
+     * @return true if the scope is closed, false otherwise.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Removes all the handlers added through the scope, and closes it.
+     */
+    @Override
+    public void close() {
+        for (var remover : removers) {
+            remover.run();
+        }
+        removers.clear();
+        closed = true;
+    }
+}
@@ -15,10 +15,33 @@ public interface EventToken<S, A> {
      */
     public void add(EvnentHandler<S, A> handler);
 
+    /**
+     * Add an event handler, invoked at most at the given rate. Invocations
+     * coming too soon after the last one delivered to the handler are held
+     * back, and the last of them is delivered once the interval passed, when
+     * the event is flushed.
+     * There is no overload limiting the handler to changes of a minimal size,
+     * as {@link FloatChangedToken} has: the arguments of an event have no
+     * distance between them. Handlers of float values subscribe to a
+     * {@link FloatChangedEvent}.
+     * 
+     * @param handler The event handler.
+     * @param maxRate The maximal number of invocations per second, or a non
+     *                positive number for no limit.
+     */
+    public void add(EvnentHandler<S, A> handler, float maxRate);
+
     /**
      * Remove an event handler.
      * 
      * @param handler The event handler.
      */
     public void remove(EvnentHandler<S, A> handler);
+
+    /**
+     * Gets the number of event handlers.
+     * 
+     * @return The number of event handlers.
+     */
+    public int listenerCount();
 }
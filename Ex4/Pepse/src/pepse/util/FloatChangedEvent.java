@@ -0,0 +1,270 @@
+package pepse.util;
+
+/**
+ * Class for representing and handling changes of a float value.
+ * Like {@link Event}, but the old and new values are passed to the handlers as
+ * primitives, so invoking allocates nothing at all. Meant for values changing
+ * every frame.
+ * The handlers are kept in a {@link SubscriptionList}, so adding and removing
+ * a handler take amortized constant time, and are called in the order they
+ * were added.
+ * Handlers may be rate limited, or limited to changes of a minimal size, which
+ * the event enforces while invoking. The last change held back from a handler
+ * by its rate limit is delivered by {@link #flush()} once its interval passed.
+ * When the {@link EventProfiler} is enabled, the time spent in every handler is
+ * recorded.
+ * 
+ * @param <S> The sender type.
+ * @author Oryan Hassidim
+ */
+public class FloatChangedEvent<S> {
+    /**
+     * A registered handler.
+     */
+    private static final class Subscription {
+        /**
+         * The handler.
+         */
+        private final FloatChangedHandler<?> handler;
+        /**
+         * The rate limit of the handler.
+         */
+        private final RateLimit limit;
+        /**
+         * The minimal change of the value to deliver, 0 for any change.
+         */
+        private final float minDelta;
+        /**
+         * The last value delivered to the handler, NaN before the first one.
+         */
+        private float last = Float.NaN;
+        /**
+         * The sender of the last change held back by the rate limit.
+         */
+        private Object heldSender;
+        /**
+         * The old value of the last change held back by the rate limit.
+         */
+        private float heldOld;
+        /**
+         * The new value of the last change held back by the rate limit.
+         */
+        private float heldNew;
+        /**
+         * The profiler statistics of the handler, null if not profiled.
+         */
+        private final EventProfiler.HandlerStats stats = EventProfiler.statsForCaller();
+
+        /**
+         * Creates a new subscription.
+         * 
+         * @param handler  The handler.
+         * @param limit    The rate limit of the handler.
+         * @param minDelta The minimal change of the value to deliver.
+         */
+        private Subscription(FloatChangedHandler<?> handler, RateLimit limit, float minDelta) {
+            this.handler = handler;
+            this.limit = limit;
+            this.minDelta = minDelta;
+        }
+    }
+
+    /**
+     * The subscriptions, in the order they were added.
+     */
+    private final SubscriptionList<Subscription> listeners = new SubscriptionList<>(s -> s.handler);
+    /**
+     * Whether a change may have been held back from a handler.
+     */
+    private boolean held = false;
+
+    /**
+     * The token for adding and removing handlers.
+     */
+    private FloatChangedToken<S> token = new FloatChangedToken<S>() {
+        @Override
+        public void add(FloatChangedHandler<S> handler) {
+            addListener(handler, RateLimit.NONE, 0);
+        }
+
+        @Override
+        public void add(FloatChangedHandler<S> handler, float maxRate) {
+            addListener(handler, RateLimit.of(maxRate), 0);
+        }
+
+        @Override
+        public void add(FloatChangedHandler<S> handler, float maxRate, float minDelta) {
+            addListener(handler, RateLimit.of(maxRate), minDelta);
+        }
+
+        @Override
+        public void remove(FloatChangedHandler<S> handler) {
+            removeListener(handler);
+        }
+
+        @Override
+        public int listenerCount() {
+            return listeners.size();
+        }
+    };
+
+    /**
+     * Creates a new float changed event.
+     */
+    public FloatChangedEvent() {
+        EventProfiler.trackEvent(this);
+    }
+
+    /**
+     * Gets the token.
+     * 
+     * @return The token.
+     */
+    public FloatChangedToken<S> getToken() {
+        return token;
+    }
+
+    /**
+     * Gets the number of handlers.
+     * 
+     * @return The number of handlers.
+     */
+    public int listenerCount() {
+        return listeners.size();
+    }
+
+    /**
+     * Removes all the handlers.
+     */
+    public void clear() {
+        if (EventProfiler.ENABLED)
+            listeners.forEach(listener -> EventProfiler.retire(listener.stats));
+        listeners.clear();
+        held = false;
+    }
+
+    /**
+     * Invokes the event. The handlers added or removed by the handlers take
+     * effect from the next invocation.
+     * 
+     * @param sender   The sender.
+     * @param oldValue The old value.
+     * @param newValue The new value.
+     */
+    public void invoke(S sender, float oldValue, float newValue) {
+        if (listeners.size() == 0)
+            return;
+        var snapshot = listeners.begin();
+        var end = listeners.end();
+        try {
+            for (int i = 0; i < end; i++) {
+                var listener = (Subscription) snapshot[i];
+                if (listener == null)
+                    continue;
+                var old = oldValue;
+                if (listener.minDelta != 0) {
+                    var last = listener.last;
+                    // NaN compares false, so the first change is always delivered
+                    if (Math.abs(newValue - last) < listener.minDelta) {
+                        // back near the last value delivered, nothing is left to deliver
+                        listener.limit.drop();
+                        listener.heldSender = null;
+                        continue;
+                    }
+                    if (!Float.isNaN(last))
+                        old = last;
+                }
+                if (!listener.limit.tryPass()) {
+                    listener.heldSender = sender;
+                    listener.heldOld = old;
+                    listener.heldNew = newValue;
+                    held = true;
+                    continue;
+                }
+                listener.heldSender = null;
+                deliver(listener, sender, old, newValue);
+            }
+        } finally {
+            listeners.finish();
+        }
+    }
+
+    /**
+     * Delivers to the rate limited handlers the last change held back from
+     * them, if their interval passed since the last one delivered. The old value
+     * is the last value delivered to the handler. Should be called every frame,
+     * so the last change is never lost.
+     */
+    @SuppressWarnings("unchecked")
+    public void flush() {
+        if (!held)
+            return;
+        held = false;
+        var snapshot = listeners.begin();
+        var end = listeners.end();
+        try {
+            for (int i = 0; i < end; i++) {
+                var listener = (Subscription) snapshot[i];
+                if (listener == null || !listener.limit.isHeld())
+                    continue;
+                if (!listener.limit.tryFlush()) {
+                    held = true;
+                    continue;
+                }
+                var sender = (S) listener.heldSender;
+                listener.heldSender = null;
+                var old = Float.isNaN(listener.last) ? listener.heldOld : listener.last;
+                deliver(listener, sender, old, listener.heldNew);
+            }
+        } finally {
+            listeners.finish();
+        }
+    }
+
+    /**
+     * Delivers a change to a handler.
+     * 
+     * @param listener The subscription of the handler.
+     * @param sender   The sender.
+     * @param oldValue The old value.
+     * @param newValue The new value.
+     */
+    @SuppressWarnings("unchecked")
+    private void deliver(Subscription listener, S sender, float oldValue, float newValue) {
+        listener.last = newValue;
+        if (EventProfiler.ENABLED && listener.stats != null) {
+            var start = EventProfiler.start();
+            try {
+                ((FloatChangedHandler<S>) listener.handler).handle(sender, oldValue, newValue);
+            } finally {
+                EventProfiler.stop(listener.stats, start);
+            }
+        } else {
+            ((FloatChangedHandler<S>) listener.handler).handle(sender, oldValue, newValue);
+        }
+    }
+
+    /**
+     * Adds a handler, unless it was already added.
+     * 
+     * @param handler  The handler.
+     * @param limit    The rate limit of the handler.
+     * @param minDelta The minimal change of the value to deliver.
+     */
+    private void addListener(FloatChangedHandler<S> handler, RateLimit limit, float minDelta) {
+        Validator.validateNotNull(handler, "handler");
+        if (!listeners.contains(handler))
+            listeners.add(handler, new Subscription(handler, limit, minDelta));
+    }
+
+    /**
+     * Removes a handler, if it was added.
+     * 
+     * @param handler The handler.
+     */
+    private void removeListener(FloatChangedHandler<S> handler) {
+        var removed = listeners.remove(handler);
+        if (removed != null)
+            EventProfiler.retire(removed.stats);
+    }
+}
@@ -0,0 +1,19 @@
+package pepse.util;
+
+/**
+ * Functional interface for handling float value changes.
+ * 
+ * @param <S> The sender type.
+ * @author Oryan Hassidim
+ */
+@FunctionalInterface
+public interface FloatChangedHandler<S> {
+    /**
+     * Handle the change.
+     * 
+     * @param sender   The sender.
+     * @param oldValue The old value.
+     * @param newValue The new value.
+     */
+    void handle(S sender, float oldValue, float newValue);
+}
@@ -0,0 +1,57 @@
+package pepse.util;
+
+/**
+ * Float changed token Interface, for adding and removing float changed
+ * handlers.
+ * 
+ * @param <S> The sender type.
+ * @author Oryan Hassidim
+ */
+public interface FloatChangedToken<S> {
+    /**
+     * Add a float changed handler.
+     * 
+     * @param handler The handler.
+     */
+    public void add(FloatChangedHandler<S> handler);
+
+    /**
+     * Add a float changed handler, invoked at most at the given rate. Changes
+     * coming too soon after the last one delivered to the handler are held
+     * back, and the last of them is delivered once the interval passed, when
+     * the event is flushed.
+     * 
+     * @param handler The handler.
+     * @param maxRate The maximal number of invocations per second, or a non
+     *                positive number for no limit.
+     */
+    public void add(FloatChangedHandler<S> handler, float maxRate);
+
+    /**
+     * Add a float changed handler, invoked at most at the given rate and only
+     * once the value moved at least the given distance from the last value
+     * delivered to the handler, which it gets as the old value. Changes held
+     * back by the rate are delivered as by {@link #add(FloatChangedHandler,
+     * float)}, unless the value returned near the last value delivered.
+     * 
+     * @param handler  The handler.
+     * @param maxRate  The maximal number of invocations per second, or a non
+     *                 positive number for no limit.
+     * @param minDelta The minimal change of the value to deliver.
+     */
+    public void add(FloatChangedHandler<S> handler, float maxRate, float minDelta);
+
+    /**
+     * Remove a float changed handler.
+     * 
+     * @param handler The handler.
+     */
+    public void remove(FloatChangedHandler<S> handler);
+
+    /**
+     * Gets the number of handlers.
+     * 
+     * @return The number of handlers.
+     */
+    public int listenerCount();
+}
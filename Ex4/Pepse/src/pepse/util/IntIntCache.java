@@ -0,0 +1,141 @@
+package pepse.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A bounded, thread-safe cache from int keys to int values, without boxing.
+ * The cache is direct-mapped: a key can only live in the slot of its low bits,
+ * so any window of consecutive keys up to the capacity fits without
+ * collisions, and keys far from the current window are evicted as the window
+ * slides over them. Each slot holds its key and value packed in one long, so
+ * reads and writes need no locking.
+ *
+ * @author Oryan Hassidim
+ */
+public final class IntIntCache {
+    /**
+     * The mask of the value bits in a slot.
+     */
+    private static final long VALUE_MASK = 0xFFFFFFFFL;
+    /**
+     * The number of bits to shift the key in a slot.
+     */
+    private static final int KEY_SHIFT = 32;
+
+    /**
+     * The slots, each holding a key and a value.
+     */
+    private final AtomicLongArray slots;
+    /**
+     * The mask of the slot index bits of a key.
+     */
+    private final int mask;
+    /**
+     * The number of lookups that found their key.
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * The number of lookups that did not find their key.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param capacity the number of slots, rounded up to a power of two
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public IntIntCache(int capacity) throws IllegalArgumentException {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("the capacity must be positive.");
+        capacity = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        slots = new AtomicLongArray(capacity);
+        mask = capacity - 1;
+        clear();
+    }
+
+    /**
+     * Gets the value of a key.
+     *
+     * @param key          the key
+     * @param defaultValue the value to return if the key is not cached
+     * @return the value of the key, or defaultValue if it is not cached
+     */
+    public int get(int key, int defaultValue) {
+        var slot = slots.get(key & mask);
+        if ((int) (slot >> KEY_SHIFT) == key) {
+            hits.increment();
+            return (int) slot;
+        }
+        misses.increment();
+        return defaultValue;
+    }
+
+    /**
+     * Gets the value of a key, computing and caching it if it is not cached.
+     *
+     * @param key     the key
+     * @param compute the function computing the value of a key
+     * @return the value of the key
+     */
+    public int computeIfAbsent(int key, IntUnaryOperator compute) {
+        var slot = slots.get(key & mask);
+        if ((int) (slot >> KEY_SHIFT) == key) {
+            hits.increment();
+            return (int) slot;
+        }
+        misses.increment();
+        var value = compute.applyAsInt(key);
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * Caches the value of a key, evicting the key in its slot.
+     *
+     * @param key   the key
+     * @param value the value
+     */
+    public void put(int key, int value) {
+        slots.set(key & mask, ((long) key << KEY_SHIFT) | (value & VALUE_MASK));
+    }
+
+    /**
+     * Removes all the keys.
+     */
+    public void clear() {
+        // an empty slot holds a key which can never be mapped to it
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, (long) (i + 1) << KEY_SHIFT);
+        }
+    }
+
+    /**
+     * Gets the number of slots.
+     *
+     * @return the number of slots
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Gets the number of lookups that found their key.
+     *
+     * @return the number of hits
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that did not find their key.
+     *
+     * @return the number of misses
+     */
+    public long misses() {
+        return misses.sum();
+    }
+}
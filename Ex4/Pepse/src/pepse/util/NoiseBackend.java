@@ -0,0 +1,71 @@
+package pepse.util;
+
+/**
+ * A strategy for evaluating noise over a strip of evenly spaced x coordinates.
+ * The default strategy is the scalar loop of {@link NoiseGenerator}. A
+ * vectorized one, using the incubating JDK Vector API, is used when it is on
+ * the class path and the jdk.incubator.vector module is present.
+ *
+ * @see NoiseGenerator#useVectorBackend(Precision)
+ * @author Oryan Hassidim
+ */
+public interface NoiseBackend {
+    /**
+     * The precision of the noise arithmetic.
+     */
+    public static enum Precision {
+        /**
+         * Double precision. The results match the scalar noise exactly, up to
+         * the sign of zeros.
+         */
+        DOUBLE,
+        /**
+         * Single precision, twice as many lanes per instruction. The lattice
+         * coordinates are still found in double precision, and the results stay
+         * within 1e-4 * factor of the scalar noise.
+         */
+        FLOAT
+    }
+
+    /**
+     * The name of the incubating Vector API module.
+     */
+    static final String VECTOR_MODULE = "jdk.incubator.vector";
+    /**
+     * The name of the vectorized backend class.
+     */
+    static final String VECTOR_BACKEND = "pepse.util.VectorNoise";
+
+    /**
+     * Generates noise for a strip of evenly spaced x coordinates.
+     *
+     * @param x0     the first x coordinate.
+     * @param step   the distance between two consecutive x coordinates.
+     * @param count  the number of x coordinates.
+     * @param factor describes how large the noise should be.
+     * @param out    the array to write the noise into, at indices 0 to count - 1.
+     */
+    void noiseRange(double x0, double step, int count, double factor, double[] out);
+
+    /**
+     * Creates the vectorized backend, if available.
+     *
+     * @param p          the doubled permutation table of the generator
+     * @param seed       the seed of the generator
+     * @param startPoint the start point of the generator
+     * @param precision  the precision of the arithmetic
+     * @return the vectorized backend, or null if the Vector API module or the
+     *         backend class is absent
+     */
+    static NoiseBackend vectorized(int[] p, double seed, double startPoint, Precision precision) {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty())
+            return null;
+        try {
+            return (NoiseBackend) Class.forName(VECTOR_BACKEND)
+                    .getConstructor(int[].class, double.class, double.class, Precision.class)
+                    .newInstance(p, seed, startPoint, precision);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -6,6 +6,7 @@ public class NoiseGenerator {
     private int[] p;
     private int[] permutation;
     private double startPoint;
+    private NoiseBackend backend;
 
     /**
      * The constructor of the NoiseGenerator class.
@@ -88,6 +89,77 @@ public class NoiseGenerator {
         return value * factor / startPoint;
     }
 
+    /**
+     * Makes {@link #noiseRange} use the vectorized backend, if available.
+     *
+     * @param precision the precision of the vectorized arithmetic.
+     * @return true if the vectorized backend is used, false if it is not
+     *         available and the scalar loop is kept.
+     */
+    public boolean useVectorBackend(NoiseBackend.Precision precision) {
+        backend = NoiseBackend.vectorized(p, seed, startPoint, precision);
+        return backend != null;
+    }
+
+    /**
+     * Generates noise for a strip of evenly spaced x coordinates in one pass,
+     * without allocating. The results are identical to calling
+     * {@link #noise(double, double)} for each x, unless a vectorized backend
+     * with single precision is used.
+     *
+     * @param x0     the first x coordinate.
+     * @param step   the distance between two consecutive x coordinates.
+     * @param count  the number of x coordinates.
+     * @param factor describes how large the noise should be.
+     * @param out    the array to write the noise into, at indices 0 to count - 1.
+     */
+    public void noiseRange(double x0, double step, int count, double factor, double[] out) {
+        if (backend != null) {
+            backend.noiseRange(x0, step, count, factor, out);
+            return;
+        }
+        // the terrain is one dimensional: y is always 0 and z is always 0, so
+        // the y lattice cell and fade are the same for every sample, and the
+        // far (z = 1) face of the cube has a weight of exactly 0.
+        double y = this.seed;
+        int Y = (int) Math.floor(y) & 255;
+        y -= Math.floor(y);
+        double v = fade(y);
+
+        for (int i = 0; i < count; i++) {
+            out[i] = 0.0;
+        }
+        double currentPoint = startPoint;
+        while (currentPoint >= 1) {
+            for (int i = 0; i < count; i++) {
+                out[i] += smoothNoise1D((x0 + i * step) / currentPoint, Y, y, v) * currentPoint;
+            }
+            currentPoint /= 2.0;
+        }
+        for (int i = 0; i < count; i++) {
+            out[i] = out[i] * factor / startPoint;
+        }
+    }
+
+    /**
+     * {@link #smoothNoise(double, double, double)} for y = z = 0, with the y
+     * lattice values precomputed.
+     */
+    private double smoothNoise1D(double x, int Y, double y, double v) {
+        x += this.seed;
+        x += this.seed;
+
+        int X = (int) Math.floor(x) & 255;
+        x -= Math.floor(x);
+        double u = fade(x);
+
+        int A = p[X] + Y;
+        int B = p[X + 1] + Y;
+
+        return lerp(v, lerp(u, grad(p[p[A]], x, y, 0), grad(p[p[B]], x - 1, y, 0)),
+                lerp(u, grad(p[p[A + 1]], x, y - 1, 0), grad(p[p[B + 1]], x - 1, y - 1, 0)));
+    }
+
     private double smoothNoise(double x, double y, double z) {
         // Offset each coordinate by the seed value
         x += this.seed;
@@ -0,0 +1,159 @@
+package pepse.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of reusable objects.
+ * Objects are created by the pool only when it is empty, and counted, so the
+ * allocation counters of all the pools show whether the game has reached a
+ * steady state where objects are only reused.
+ * Every thread has its own free objects, so worlds running on separate
+ * threads never share an object, and the pool needs no locking. An object
+ * should be released on the thread that obtained it.
+ * 
+ * @param <T> the type of the pooled objects
+ * @author Oryan Hassidim
+ */
+public final class ObjectPool<T> {
+    /**
+     * All the pools created, in order.
+     */
+    private static final List<ObjectPool<?>> POOLS = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * The name of the pool.
+     */
+    private final String name;
+    /**
+     * The function creating a new object.
+     */
+    private final Supplier<T> factory;
+    /**
+     * The maximal number of free objects kept by every thread.
+     */
+    private final int capacity;
+    /**
+     * The free objects of every thread.
+     */
+    private final ThreadLocal<ArrayDeque<T>> free = ThreadLocal.withInitial(ArrayDeque::new);
+    /**
+     * The number of objects created by the pool.
+     */
+    private final LongAdder allocations = new LongAdder();
+    /**
+     * The number of objects handed out again.
+     */
+    private final LongAdder reuses = new LongAdder();
+
+    /**
+     * Creates a new pool.
+     * 
+     * @param name     the name of the pool, for reports
+     * @param factory  the function creating a new object
+     * @param capacity the maximal number of free objects kept by every thread,
+     *                 beyond which released objects are dropped
+     */
+    public ObjectPool(String name, Supplier<T> factory, int capacity) {
+        this.name = name;
+        this.factory = factory;
+        this.capacity = capacity;
+        POOLS.add(this);
+    }
+
+    /**
+     * Gets all the pools created.
+     * 
+     * @return an unmodifiable view of the pools
+     */
+    public static List<ObjectPool<?>> pools() {
+        return Collections.unmodifiableList(POOLS);
+    }
+
+    /**
+     * Gets the number of objects created by all the pools.
+     * 
+     * @return the total number of allocations
+     */
+    public static long totalAllocations() {
+        synchronized (POOLS) {
+            return POOLS.stream().mapToLong(ObjectPool::allocations).sum();
+        }
+    }
+
+    /**
+     * Takes a free object, or creates one if there is none.
+     * 
+     * @return the object
+     */
+    public T obtain() {
+        var obj = free.get().poll();
+        if (obj != null) {
+            reuses.increment();
+            return obj;
+        }
+        allocations.increment();
+        return factory.get();
+    }
+
+    /**
+     * Returns an object to the pool. The object must not be used afterwards.
+     * 
+     * @param obj the object
+     */
+    public void release(T obj) {
+        var objects = free.get();
+        if (objects.size() < capacity)
+            objects.push(obj);
+    }
+
+    /**
+     * Gets the name of the pool.
+     * 
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the number of free objects of the calling thread.
+     * 
+     * @return the number of free objects
+     */
+    public int available() {
+        return free.get().size();
+    }
+
+    /**
+     * Gets the number of objects created by the pool.
+     * 
+     * @return the number of allocations
+     */
+    public long allocations() {
+        return allocations.sum();
+    }
+
+    /**
+     * Gets the number of objects handed out again.
+     * 
+     * @return the number of reuses
+     */
+    public long reuses() {
+        return reuses.sum();
+    }
+
+    /**
+     * Returns a short report of the pool.
+     * 
+     * @return the report
+     */
+    @Override
+    public String toString() {
+        return name + ": " + allocations() + " allocated, " + reuses() + " reused, " + available() + " free";
+    }
+}
@@ -0,0 +1,124 @@
+package pepse.util;
+
+/**
+ * The rate limit of a single event subscription, enforced by the event when
+ * invoking it.
+ * Invocations coming sooner than the minimal interval after the last delivered
+ * one are held back. The last one held back is delivered by the event when it
+ * is flushed after the interval passed, unless a newer invocation was
+ * delivered first, so a limited handler always ends with the last value.
+ * 
+ * @author Oryan Hassidim
+ */
+final class RateLimit {
+    /**
+     * No limit at all.
+     */
+    static final RateLimit NONE = new RateLimit(0);
+
+    /**
+     * The number of nanoseconds in a second.
+     */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * The minimal time between delivered invocations, in nanoseconds.
+     */
+    private final long interval;
+    /**
+     * The time of the last delivered invocation, in nanoseconds.
+     */
+    private long last;
+    /**
+     * Whether an invocation was delivered yet.
+     */
+    private boolean started = false;
+    /**
+     * Whether an invocation was held back since the last delivered one.
+     */
+    private boolean held = false;
+
+    /**
+     * Creates a new rate limit.
+     * 
+     * @param interval the minimal time between delivered invocations, in
+     *                 nanoseconds
+     */
+    private RateLimit(long interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * Creates a rate limit of a maximal rate.
+     * 
+     * @param maxRate the maximal number of delivered invocations per second, or a
+     *                non positive number for no limit
+     * @return the rate limit
+     */
+    static RateLimit of(float maxRate) {
+        return maxRate > 0 ? new RateLimit((long) (NANOS_PER_SECOND / maxRate)) : NONE;
+    }
+
+    /**
+     * Checks whether an invocation was held back since the last delivered one.
+     * 
+     * @return true if an invocation was held back, false otherwise
+     */
+    boolean isHeld() {
+        return held;
+    }
+
+    /**
+     * Checks whether an invocation should be delivered now, and records it as
+     * delivered if so, or as held back otherwise.
+     * 
+     * @return true if the invocation should be delivered, false otherwise
+     */
+    boolean tryPass() {
+        if (interval == 0)
+            return true;
+        var now = System.nanoTime();
+        if (started && now - last < interval) {
+            held = true;
+            return false;
+        }
+        pass(now);
+        return true;
+    }
+
+    /**
+     * Checks whether the invocation held back should be delivered now, and
+     * records it as delivered if so.
+     * 
+     * @return true if an invocation was held back and should be delivered,
+     *         false otherwise
+     */
+    boolean tryFlush() {
+        if (!held)
+            return false;
+        var now = System.nanoTime();
+        if (now - last < interval)
+            return false;
+        pass(now);
+        return true;
+    }
+
+    /**
+     * Forgets the invocation held back, if any, when it no longer needs to be
+     * delivered.
+     */
+    void drop() {
+        held = false;
+    }
+
+    /**
+     * Records a delivered invocation.
+     * 
+     * @param now the time of the invocation, in nanoseconds
+     */
+    private void pass(long now) {
+        started = true;
+        held = false;
+        last = now;
+    }
+}
@@ -0,0 +1,16 @@
+package pepse.util;
+
+/**
+ * Interface for objects which can be recycled once they are no longer used.
+ * A recycled object returns to the pool it came from, and may be handed out
+ * again, so it must not be used after being recycled.
+ * 
+ * @see ObjectPool
+ * @author Oryan Hassidim
+ */
+public interface Recyclable {
+    /**
+     * Recycles the object.
+     */
+    void recycle();
+}
@@ -0,0 +1,242 @@
+package pepse.util;
+
+import danogl.gui.rendering.OvalRenderable;
+import danogl.gui.rendering.RectangleRenderable;
+import danogl.gui.rendering.Renderable;
+
+import java.awt.Color;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache of shared single-color renderables, keyed by shape and quantized
+ * color.
+ * Solid renderables hold nothing but their color, so objects of the same shape
+ * and close enough colors can share a single instance. Colors are quantized
+ * to steps too small to notice, which also lowers the number of instances
+ * created while animating between colors. The cache holds at most a fixed
+ * number of renderables; once full, colors not cached yet get a renderable of
+ * their own, so animations running for as long as the game does cannot grow
+ * it.
+ * The cache is a primitive open-addressing table, so a lookup allocates
+ * nothing. The table is allocated at its full capacity and slots are claimed
+ * by compare-and-set, so it is thread-safe without locks, and the worlds of
+ * several threads never wait for each other. Two threads missing the same
+ * color at once may both create a renderable, of which one is cached.
+ *
+ * @author Oryan Hassidim
+ */
+public final class RenderableCache {
+    /**
+     * The shapes of the cached renderables.
+     */
+    public static enum Shape {
+        /**
+         * A rectangle.
+         */
+        RECTANGLE,
+        /**
+         * An oval.
+         */
+        OVAL
+    }
+
+    /**
+     * The step every color channel, alpha included, is rounded to.
+     */
+    private static final int QUANTUM = 4;
+    /**
+     * The maximal value of a channel.
+     */
+    private static final int MAX_CHANNEL = 255;
+    /**
+     * The maximal number of cached renderables. Threads inserting at once may
+     * exceed it by their number.
+     */
+    private static final int MAX_SIZE = 4096;
+    /**
+     * The capacity of the table, so it is never more than about half full.
+     */
+    private static final int CAPACITY = 2 * MAX_SIZE;
+    /**
+     * The key of an empty slot. No real key has a shape this large.
+     */
+    private static final long EMPTY = -1L;
+
+    /**
+     * The keys of the table.
+     */
+    private static final AtomicLongArray KEYS = newKeys(CAPACITY);
+    /**
+     * The renderables of the table, set right after their keys.
+     */
+    private static final AtomicReferenceArray<Renderable> VALUES = new AtomicReferenceArray<>(CAPACITY);
+    /**
+     * The number of cached renderables.
+     */
+    private static final AtomicInteger SIZE = new AtomicInteger();
+    /**
+     * The number of lookups that found their renderable.
+     */
+    private static final LongAdder HITS = new LongAdder();
+    /**
+     * The number of lookups that created their renderable.
+     */
+    private static final LongAdder MISSES = new LongAdder();
+
+    /**
+     * A private constructor to prevent instantiation.
+     */
+    private RenderableCache() {
+    }
+
+    /**
+     * Gets a shared rectangle renderable of a color.
+     *
+     * @param color the color
+     * @return the renderable
+     */
+    public static Renderable rectangle(Color color) {
+        return get(Shape.RECTANGLE, color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+    }
+
+    /**
+     * Gets a shared oval renderable of a color.
+     *
+     * @param color the color
+     * @return the renderable
+     */
+    public static Renderable oval(Color color) {
+        return get(Shape.OVAL, color.getRed(), color.getGreen(), color.getBlue(), color.getAlpha());
+    }
+
+    /**
+     * Gets a shared renderable of a shape and a color, given by its channels.
+     *
+     * @param shape the shape
+     * @param red   the red channel, in [0, 255]
+     * @param green the green channel, in [0, 255]
+     * @param blue  the blue channel, in [0, 255]
+     * @param alpha the alpha channel, in [0, 255]
+     * @return the renderable
+     */
+    public static Renderable get(Shape shape, int red, int green, int blue, int alpha) {
+        var rgba = (quantize(red) << 24) | (quantize(green) << 16) | (quantize(blue) << 8) | quantize(alpha);
+        var key = ((long) shape.ordinal() << 32) | (rgba & 0xFFFFFFFFL);
+        var mask = CAPACITY - 1;
+        var slot = (int) mix(key) & mask;
+        while (true) {
+            var found = KEYS.get(slot);
+            if (found == key) {
+                var renderable = VALUES.get(slot);
+                // null while the thread which claimed the slot creates it
+                if (renderable != null) {
+                    HITS.increment();
+                    return renderable;
+                }
+                MISSES.increment();
+                return create(shape, rgba);
+            }
+            if (found == EMPTY) {
+                if (SIZE.get() < MAX_SIZE && !KEYS.compareAndSet(slot, EMPTY, key))
+                    continue; // claimed meanwhile, maybe by the same key
+                MISSES.increment();
+                var renderable = create(shape, rgba);
+                if (KEYS.get(slot) != key)
+                    return renderable; // the cache is full
+                VALUES.set(slot, renderable);
+                SIZE.incrementAndGet();
+                return renderable;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /**
+     * Gets the number of cached renderables.
+     *
+     * @return the number of cached renderables
+     */
+    public static int size() {
+        return SIZE.get();
+    }
+
+    /**
+     * Gets the number of lookups that found their renderable.
+     *
+     * @return the number of hits
+     */
+    public static long hits() {
+        return HITS.sum();
+    }
+
+    /**
+     * Gets the number of lookups that created their renderable.
+     *
+     * @return the number of misses
+     */
+    public static long misses() {
+        return MISSES.sum();
+    }
+
+    /**
+     * Gets the share of lookups that found their renderable.
+     *
+     * @return the hit rate, in [0, 1], or 0 if there were no lookups
+     */
+    public static double hitRate() {
+        var hits = HITS.sum();
+        var lookups = hits + MISSES.sum();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Creates a renderable of a shape and a quantized color.
+     *
+     * @param shape the shape
+     * @param rgba  the quantized color, as 8 bits per channel
+     * @return the renderable
+     */
+    private static Renderable create(Shape shape, int rgba) {
+        var color = new Color(rgba >>> 24, (rgba >>> 16) & MAX_CHANNEL, (rgba >>> 8) & MAX_CHANNEL,
+                rgba & MAX_CHANNEL);
+        return shape == Shape.OVAL ? new OvalRenderable(color) : new RectangleRenderable(color);
+    }
+
+    /**
+     * Rounds a color channel to the nearest step.
+     *
+     * @param channel the channel, in [0, 255]
+     * @return the quantized channel
+     */
+    private static int quantize(int channel) {
+        return Math.min(MAX_CHANNEL, (channel + QUANTUM / 2) / QUANTUM * QUANTUM);
+    }
+
+    /**
+     * Creates an array of empty keys.
+     *
+     * @param capacity the capacity
+     * @return the keys
+     */
+    private static AtomicLongArray newKeys(int capacity) {
+        var result = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            result.set(i, EMPTY);
+        }
+        return result;
+    }
+
+    /**
+     * Scrambles the bits of a key, so close colors spread over the table.
+     *
+     * @param key the key
+     * @return the scrambled key
+     */
+    private static long mix(long key) {
+        key *= 0x9E3779B97F4A7C15L;
+        return key ^ (key >>> 32);
+    }
+}
@@ -0,0 +1,471 @@
+package pepse.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+
+import pepse.util.services.NoPublicConstructorFoundException;
+import pepse.util.services.ServiceNotFoundException;
+import pepse.util.services.ServiceProvider;
+
+/**
+ * <p>
+ * A container of registered services, for dependency injection.
+ * Every world of the game has its own container, so several worlds can run in
+ * the same JVM, each on its own thread, without sharing any service. Code
+ * reaches the container of its world through the {@link Services} facade.
+ * </p>
+ * <p>
+ * A container is safe to use from any thread, such as the workers generating
+ * the world. Lazy singletons are built exactly once, and a thread asking for
+ * one while it is being built waits for it. Lazy singletons may also be built
+ * ahead of time, in parallel, by {@link #warmUp(Executor)}.
+ * </p>
+ * 
+ * @see Services
+ * @author Oryan Hassidim
+ */
+public final class ServiceContainer {
+    /**
+     * A provider of a single, known, instance.
+     * 
+     * @param <T> the type of the service
+     */
+    private static final class SingletonProvider<T> implements ServiceProvider<T> {
+        /** The service instance. */
+        private final T instance;
+
+        /**
+         * Constructs a new singleton provider.
+         * 
+         * @param instance the service instance
+         */
+        private SingletonProvider(T instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public T provide() {
+            return instance;
+        }
+    }
+
+    /**
+     * A provider calling a constructor, compiled once into a method handle with
+     * its arguments looked up through service handles.
+     * 
+     * @param <T> the type of the service
+     */
+    private static final class ConstructorProvider<T> implements ServiceProvider<T> {
+        /** The constructor call, taking nothing and returning an Object. */
+        private final MethodHandle factory;
+        /** The type of the service. */
+        private final Class<T> serviceType;
+
+        /**
+         * Constructs a new constructor provider.
+         * 
+         * @param factory     the constructor call
+         * @param serviceType the type of the service
+         */
+        private ConstructorProvider(MethodHandle factory, Class<T> serviceType) {
+            this.factory = factory;
+            this.serviceType = serviceType;
+        }
+
+        @Override
+        public T provide() {
+            try {
+                return serviceType.cast((Object) factory.invokeExact());
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * A provider of a single instance, built on first use, exactly once.
+     * 
+     * @param <T> the type of the service
+     */
+    private static final class LazySingletonProvider<T> implements ServiceProvider<T> {
+        /** The provider building the instance. */
+        private final ServiceProvider<? extends T> factory;
+        /** The types of the services the instance is built from. */
+        private final Class<?>[] dependencies;
+        /** The instance, null until built. */
+        private volatile T instance;
+
+        /**
+         * Constructs a new lazy singleton provider.
+         * 
+         * @param factory      the provider building the instance
+         * @param dependencies the types of the services the instance is built
+         *                     from
+         */
+        private LazySingletonProvider(ServiceProvider<? extends T> factory, Class<?>[] dependencies) {
+            this.factory = factory;
+            this.dependencies = dependencies;
+        }
+
+        /**
+         * Checks whether the instance was built.
+         * 
+         * @return true if the instance was built, false otherwise
+         */
+        private boolean isBuilt() {
+            return instance != null;
+        }
+
+        @Override
+        public T provide() {
+            var result = instance;
+            if (result != null)
+                return result;
+            synchronized (this) {
+                if (instance == null)
+                    instance = factory.provide();
+                return instance;
+            }
+        }
+    }
+
+    /** The method type of a service handle's get. */
+    private static final MethodType HANDLE_GET_TYPE = MethodType.methodType(Object.class);
+    /** The method type of a compiled constructor call. */
+    private static final MethodType FACTORY_TYPE = MethodType.methodType(Object.class);
+
+    /** The services collection. */
+    private final Map<Class<?>, ServiceProvider<? extends Object>> services = new ConcurrentHashMap<>();
+    /** The handles given out, by service type. */
+    private final Map<Class<?>, ServiceHandle<?>> handles = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a new empty container.
+     */
+    public ServiceContainer() {
+        super();
+    }
+
+    /**
+     * Registers a service.
+     * 
+     * @param <T>         the type of the service
+     * @param serviceType the type of the service
+     * @param provider    the service provider
+     * @throws IllegalArgumentException if the service type or provider is null
+     */
+    public <T> void addService(Class<T> serviceType, ServiceProvider<T> provider)
+            throws IllegalArgumentException {
+        Validator.validateNotNull(serviceType, "serviceType");
+        Validator.validateNotNull(provider, "service");
+        register(serviceType, provider);
+    }
+
+    /**
+     * Registers a singleton service.
+     * 
+     * @param <T>         the type of the service
+     * @param serviceType the type of the service
+     * @param service     the service instance
+     */
+    public <T> void addSingleton(Class<T> serviceType, T service) throws IllegalArgumentException {
+        Validator.validateNotNull(service, "service");
+        Validator.validateNotNull(serviceType, "serviceType");
+        register(serviceType, new SingletonProvider<>(service));
+    }
+
+    /**
+     * Registers a service provider, and rebinds the handles of the service.
+     * 
+     * @param serviceType the type of the service
+     * @param provider    the service provider
+     */
+    private synchronized void register(Class<?> serviceType, ServiceProvider<? extends Object> provider) {
+        services.put(serviceType, provider);
+        var handle = handles.get(serviceType);
+        if (handle != null)
+            handle.bind(provider, instanceOf(provider));
+    }
+
+    /**
+     * Gets the instance of a singleton provider.
+     * 
+     * @param provider the service provider, or null
+     * @return the instance, or null if the provider is not of a known instance
+     */
+    private static Object instanceOf(ServiceProvider<? extends Object> provider) {
+        return provider instanceof SingletonProvider ? ((SingletonProvider<?>) provider).instance : null;
+    }
+
+    /**
+     * Registers a service implementation. The constructor is compiled once,
+     * here, and every provided instance is a direct constructor call with its
+     * arguments taken from the registered services.
+     * 
+     * @param <T>                the type of the service
+     * @param <U>                the type of the implementation
+     * @param serviceType        the type of the service
+     * @param implementationType the type of the implementation
+     * @throws IllegalArgumentException          if the service type or
+     *                                           implementation type
+     *                                           is null, or its constructor
+     *                                           cannot be accessed
+     * @throws NoPublicConstructorFoundException if no public constructor is found
+     *                                           for the implementation type
+     */
+    public <T, U extends T> void addService(Class<T> serviceType, Class<U> implementationType)
+            throws IllegalArgumentException, NoPublicConstructorFoundException {
+        Validator.validateNotNull(serviceType, "serviceType");
+        Validator.validateNotNull(implementationType, "implementationType");
+        var provider = new ConstructorProvider<>(compileConstructor(implementationType), serviceType);
+        addService(serviceType, provider);
+    }
+
+    /**
+     * Compiles the public constructor of a type into a method handle taking
+     * nothing. Every parameter is bound to the handle of the service of its
+     * type, so calling it looks its arguments up and calls the constructor
+     * directly.
+     * 
+     * @param type the type to construct
+     * @return the constructor call, of type ()Object
+     * @throws NoPublicConstructorFoundException if no public constructor is found
+     *                                           for the type
+     * @throws IllegalArgumentException          if the constructor cannot be
+     *                                           accessed
+     */
+    private MethodHandle compileConstructor(Class<?> type)
+            throws NoPublicConstructorFoundException, IllegalArgumentException {
+        Constructor<?> constructor = TryGetPublicConstructor(type);
+        try {
+            var lookup = MethodHandles.lookup();
+            var factory = lookup.unreflectConstructor(constructor);
+            var get = lookup.findVirtual(ServiceHandle.class, "get", HANDLE_GET_TYPE);
+            // each step replaces the first remaining parameter with a lookup of
+            // its service
+            for (var parameterType : constructor.getParameterTypes()) {
+                var argument = get.bindTo(handle(parameterType))
+                        .asType(MethodType.methodType(parameterType));
+                factory = MethodHandles.collectArguments(factory, 0, argument);
+            }
+            return factory.asType(FACTORY_TYPE);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Cannot access the constructor of " + type.getName(), e);
+        }
+    }
+
+
+    /**
+     * Tries to get a public constructor for the implementation type.
+     * @param <U> the type of the implementation
+     * @param type the type of the implementation
+     * @return the public constructor
+     * @throws NoPublicConstructorFoundException if no public constructor is found
+     */
+    private static <U> Constructor<?> TryGetPublicConstructor(Class<U> type)
+            throws NoPublicConstructorFoundException {
+        Constructor<?> constructor;
+        try {
+            constructor = Arrays.stream(type.getDeclaredConstructors())
+                    .filter(c -> Modifier.isPublic(c.getModifiers()))
+                    .min((c1, c2) -> Integer.compare(c1.getParameterCount(), c2.getParameterCount()))
+                    .orElseThrow(() -> new RuntimeException(new NoPublicConstructorFoundException(
+                            "No public constructor found for " + type.getName())));
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof NoPublicConstructorFoundException)
+                throw (NoPublicConstructorFoundException) e.getCause();
+            else
+                throw e;
+        }
+        return constructor;
+    }
+
+    /**
+     * Registers a singleton service implementation.
+     * 
+     * @param <T>                the type of the service
+     * @param <U>                the type of the implementation
+     * @param serviceType        the type of the service
+     * @param implementationType the type of the implementation
+     * @throws IllegalArgumentException          if the service type or
+     *                                           implementation type
+     *                                           is null, or its constructor
+     *                                           cannot be accessed
+     * @throws NoPublicConstructorFoundException if no public constructor is found
+     *                                           for the implementation type
+     */
+    public <T, U extends T> void addSingleton(Class<T> serviceType, Class<U> implementationType)
+            throws IllegalArgumentException, NoPublicConstructorFoundException {
+        Validator.validateNotNull(serviceType, "serviceType");
+        Validator.validateNotNull(implementationType, "implementationType");
+        var factory = new ConstructorProvider<>(compileConstructor(implementationType), serviceType);
+        var dependencies = TryGetPublicConstructor(implementationType).getParameterTypes();
+        register(serviceType, new LazySingletonProvider<>(factory, dependencies));
+    }
+
+    /**
+     * Registers a singleton service built on first use, exactly once.
+     * 
+     * @param <T>          the type of the service
+     * @param serviceType  the type of the service
+     * @param factory      the provider building the service
+     * @param dependencies the types of the services the service is built from,
+     *                     so a warm-up builds them first
+     * @throws IllegalArgumentException if the service type or factory is null
+     */
+    public <T> void addLazySingleton(Class<T> serviceType, ServiceProvider<? extends T> factory,
+            Class<?>... dependencies) throws IllegalArgumentException {
+        Validator.validateNotNull(serviceType, "serviceType");
+        Validator.validateNotNull(factory, "factory");
+        register(serviceType, new LazySingletonProvider<>(factory, dependencies.clone()));
+    }
+
+    /**
+     * Starts building all the lazy singletons not built yet, in parallel. Every
+     * singleton is built after the lazy singletons it depends on, on a thread
+     * bound to this container, so it may use the {@link Services} facade.
+     * Services asked for before their building ends wait for it.
+     * 
+     * @param executor the executor to build on
+     * @return a future completing when all the singletons are built, or
+     *         failing with the first failure
+     */
+    public CompletableFuture<Void> warmUp(Executor executor) {
+        Map<Class<?>, CompletableFuture<Void>> builds = new HashMap<>();
+        Set<Class<?>> scheduling = new HashSet<>();
+        var all = new ArrayList<CompletableFuture<Void>>();
+        for (var type : services.keySet()) {
+            all.add(scheduleBuild(type, builds, scheduling, executor));
+        }
+        return CompletableFuture.allOf(all.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Builds all the lazy singletons not built yet, in parallel on the common
+     * pool, and waits for them.
+     * 
+     * @throws RuntimeException if building a singleton failed
+     */
+    public void warmUp() throws RuntimeException {
+        try {
+            warmUp(ForkJoinPool.commonPool()).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw e;
+        }
+    }
+
+    /**
+     * Schedules building a service, after its dependencies. Only lazy
+     * singletons not built yet are built, everything else completes at once.
+     * A dependency on a service whose dependencies are being scheduled closes a
+     * cycle, and is taken as met: the build does not wait for it, so the
+     * builds of a cycle never wait for each other, and whichever needs the
+     * other first builds it on demand.
+     * 
+     * @param type       the type of the service
+     * @param builds     the builds scheduled so far, by type
+     * @param scheduling the services whose dependencies are being scheduled
+     * @param executor   the executor to build on
+     * @return the build of the service
+     */
+    private CompletableFuture<Void> scheduleBuild(Class<?> type, Map<Class<?>, CompletableFuture<Void>> builds,
+            Set<Class<?>> scheduling, Executor executor) {
+        if (scheduling.contains(type))
+            return CompletableFuture.completedFuture(null);
+        var scheduled = builds.get(type);
+        if (scheduled != null)
+            return scheduled;
+        var provider = services.get(type);
+        if (!(provider instanceof LazySingletonProvider) || ((LazySingletonProvider<?>) provider).isBuilt()) {
+            scheduled = CompletableFuture.completedFuture(null);
+            builds.put(type, scheduled);
+            return scheduled;
+        }
+        var lazy = (LazySingletonProvider<?>) provider;
+        var build = new CompletableFuture<Void>();
+        builds.put(type, build);
+        scheduling.add(type);
+        var dependencies = Arrays.stream(lazy.dependencies)
+                .map(dependency -> scheduleBuild(dependency, builds, scheduling, executor))
+                .toArray(CompletableFuture[]::new);
+        scheduling.remove(type);
+        CompletableFuture.allOf(dependencies).thenRunAsync(() -> {
+            var previous = Services.current();
+            Services.bind(this);
+            try {
+                lazy.provide();
+            } finally {
+                Services.bind(previous);
+            }
+        }, executor).whenComplete((result, error) -> {
+            if (error != null)
+                build.completeExceptionally(error);
+            else
+                build.complete(null);
+        });
+        return build;
+    }
+
+    /**
+     * Gets a handle of a service, for looking it up often. The handle follows
+     * later registrations of the service, and may be taken before the service
+     * is registered.
+     * 
+     * @param <T>         the type of the service
+     * @param serviceType the type of the service
+     * @return the handle
+     * @throws IllegalArgumentException if the service type is null
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ServiceHandle<T> handle(Class<T> serviceType) throws IllegalArgumentException {
+        Validator.validateNotNull(serviceType, "serviceType");
+        var handle = handles.get(serviceType);
+        if (handle != null)
+            return (ServiceHandle<T>) handle;
+        // created under the registration lock, so it is never bound to a
+        // provider being replaced
+        synchronized (this) {
+            return (ServiceHandle<T>) handles.computeIfAbsent(serviceType, type -> {
+                var provider = services.get(type);
+                return new ServiceHandle<>(serviceType, provider, instanceOf(provider));
+            });
+        }
+    }
+
+    /**
+     * Gets a service.
+     * 
+     * @param <T>         the type of the service
+     * @param serviceType the type of the service
+     * @return the service
+     * @throws IllegalArgumentException if the service type is null
+     * @throws ServiceNotFoundException if the service is not found
+     */
+    public <T> T getService(Class<T> serviceType)
+            throws IllegalArgumentException, ServiceNotFoundException {
+        Validator.validateNotNull(serviceType, "serviceType");
+        var provider = services.get(serviceType);
+        if (provider == null)
+            throw new ServiceNotFoundException("Service not found: " + serviceType.getName());
+
+        return serviceType.cast(provider.provide());
+    }
+}
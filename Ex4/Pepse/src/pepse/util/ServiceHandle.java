@@ -0,0 +1,103 @@
+package pepse.util;
+
+import pepse.util.services.ServiceNotFoundException;
+import pepse.util.services.ServiceProvider;
+
+/**
+ * A resolved reference to a registered service, for code looking a service up
+ * often.
+ * Getting a service through a handle skips the lookup of
+ * {@link Services#getService(Class)}. A singleton is read from a final field
+ * of the current binding, and other services are provided directly by their
+ * provider. Registering the service again rebinds all its handles, so a handle
+ * may be kept for as long as needed.
+ * 
+ * @param <T> the type of the service
+ * @author Oryan Hassidim
+ */
+public final class ServiceHandle<T> {
+    /**
+     * A registration of the service.
+     * 
+     * @param <T> the type of the service
+     */
+    private static final class Binding<T> {
+        /**
+         * The service provider, null if the service is not registered.
+         */
+        private final ServiceProvider<? extends Object> provider;
+        /**
+         * The service instance, if the service is a singleton, null otherwise.
+         */
+        private final T instance;
+
+        /**
+         * Creates a new binding.
+         * 
+         * @param provider the service provider
+         * @param instance the service instance, if the service is a singleton
+         */
+        private Binding(ServiceProvider<? extends Object> provider, T instance) {
+            this.provider = provider;
+            this.instance = instance;
+        }
+    }
+
+    /**
+     * The type of the service.
+     */
+    private final Class<T> serviceType;
+    /**
+     * The current registration of the service. Replaced as a whole, so readers
+     * on any thread see a consistent binding.
+     */
+    private volatile Binding<T> binding;
+
+    /**
+     * Creates a new handle.
+     * 
+     * @param serviceType the type of the service
+     * @param provider    the service provider, null if the service is not
+     *                    registered
+     * @param instance    the service instance, if the service is a singleton
+     */
+    ServiceHandle(Class<T> serviceType, ServiceProvider<? extends Object> provider, Object instance) {
+        this.serviceType = serviceType;
+        bind(provider, instance);
+    }
+
+    /**
+     * Binds the handle to a new registration of the service.
+     * 
+     * @param provider the service provider, null if the service is not
+     *                 registered
+     * @param instance the service instance, if the service is a singleton
+     */
+    void bind(ServiceProvider<? extends Object> provider, Object instance) {
+        binding = new Binding<>(provider, serviceType.cast(instance));
+    }
+
+    /**
+     * Gets the type of the service.
+     * 
+     * @return the type of the service
+     */
+    public Class<T> getServiceType() {
+        return serviceType;
+    }
+
+    /**
+     * Gets the service.
+     * 
+     * @return the service
+     * @throws ServiceNotFoundException if the service is not registered
+     */
+    public T get() throws ServiceNotFoundException {
+        var current = binding;
+        if (current.instance != null)
+            return current.instance;
+        if (current.provider == null)
+            throw new ServiceNotFoundException("Service not found: " + serviceType.getName());
+        return serviceType.cast(current.provider.provide());
+    }
+}
@@ -1,11 +1,5 @@
 package pepse.util;
 
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Modifier;
-
 import pepse.util.services.NoPublicConstructorFoundException;
 import pepse.util.services.ServiceNotFoundException;
 import pepse.util.services.ServiceProvider;
@@ -18,19 +12,27 @@ import pepse.util.services.ServiceProvider;
  * testable.
  * </p>
  * <p>
+ * The services live in a {@link ServiceContainer}. This class is a facade over
+ * the container bound to the calling thread, or the default container if none
+ * is bound, so a single game needs no container at all, while every world of a
+ * batch can run on its own thread with its own container.
+ * </p>
+ * <p>
  * Example:
  * </p>
- * 
+ *
  * <pre>
  * Services.registerService(MyService.class, new MyService());
  * MyService service = Services.getService(MyService.class);
  * </pre>
- * 
+ *
  * @author Oryan Hassidim
  */
 public final class Services {
-    /** The services collection. */
-    private static Map<Class<?>, ServiceProvider<? extends Object>> services = new HashMap<>();
+    /** The default container. */
+    private static final ServiceContainer DEFAULT = new ServiceContainer();
+    /** The containers bound to threads. */
+    private static final ThreadLocal<ServiceContainer> BOUND = new ThreadLocal<>();
 
     /**
      * Constructs a new Services.
@@ -39,151 +41,146 @@ public final class Services {
         super();
     }
 
+    /**
+     * Gets the default container, used by threads with no bound container.
+     *
+     * @return the default container
+     */
+    public static ServiceContainer getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets the container of the calling thread.
+     *
+     * @return the container bound to the calling thread, or the default
+     *         container if none is bound
+     */
+    public static ServiceContainer current() {
+        var container = BOUND.get();
+        return container != null ? container : DEFAULT;
+    }
+
+    /**
+     * Binds a container to the calling thread, until bound again. Everything
+     * the thread registers or gets through this class goes to that container.
+     *
+     * @param container the container, or null to go back to the default one
+     */
+    public static void bind(ServiceContainer container) {
+        if (container == null)
+            BOUND.remove();
+        else
+            BOUND.set(container);
+    }
+
     /**
      * Registers a service.
-     * 
+     *
      * @param <T>         the type of the service
      * @param serviceType the type of the service
      * @param provider    the service provider
      * @throws IllegalArgumentException if the service type or provider is null
+     * @see ServiceContainer#addService(Class, ServiceProvider)
      */
     public static <T> void addService(Class<T> serviceType, ServiceProvider<T> provider)
             throws IllegalArgumentException {
-        Validator.validateNotNull(serviceType, "serviceType");
-        Validator.validateNotNull(provider, "service");
-        services.put(serviceType, provider);
+        current().addService(serviceType, provider);
     }
 
     /**
      * Registers a singleton service.
-     * 
+     *
      * @param <T>         the type of the service
      * @param serviceType the type of the service
      * @param service     the service instance
+     * @see ServiceContainer#addSingleton(Class, Object)
      */
     public static <T> void addSingleton(Class<T> serviceType, T service) throws IllegalArgumentException {
-        Validator.validateNotNull(service, "service");
-        var provider = new ServiceProvider<T>() {
-            @Override
-            public T provide() {
-                return service;
-            }
-        };
-        Services.addService(serviceType, provider);
+        current().addSingleton(serviceType, service);
+    }
+
+    /**
+     * Registers a singleton service built on first use, exactly once.
+     *
+     * @param <T>          the type of the service
+     * @param serviceType  the type of the service
+     * @param factory      the provider building the service
+     * @param dependencies the types of the services the service is built from
+     * @throws IllegalArgumentException if the service type or factory is null
+     * @see ServiceContainer#addLazySingleton(Class, ServiceProvider, Class...)
+     */
+    public static <T> void addLazySingleton(Class<T> serviceType, ServiceProvider<? extends T> factory,
+            Class<?>... dependencies) throws IllegalArgumentException {
+        current().addLazySingleton(serviceType, factory, dependencies);
     }
 
     /**
      * Registers a service implementation.
-     * 
+     *
      * @param <T>                the type of the service
      * @param <U>                the type of the implementation
      * @param serviceType        the type of the service
      * @param implementationType the type of the implementation
      * @throws IllegalArgumentException          if the service type or
      *                                           implementation type
-     *                                           is null
+     *                                           is null, or its constructor
+     *                                           cannot be accessed
      * @throws NoPublicConstructorFoundException if no public constructor is found
      *                                           for the implementation type
+     * @see ServiceContainer#addService(Class, Class)
      */
     public static <T, U extends T> void addService(Class<T> serviceType, Class<U> implementationType)
             throws IllegalArgumentException, NoPublicConstructorFoundException {
-        Validator.validateNotNull(serviceType, "serviceType");
-        Validator.validateNotNull(implementationType, "implementationType");
-        Constructor<?> constructor = TryGetPublicConstructor(implementationType);
-        var params = constructor.getParameters();
-
-        ServiceProvider<T> provider = () -> {
-            try {
-                var args = Arrays.stream(params).map(p -> Services.getService(p.getType())).toArray();
-                return implementationType.cast(constructor.newInstance(args));
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        };
-        Services.addService(serviceType, provider);
-    }
-
-
-    /**
-     * Tries to get a public constructor for the implementation type.
-     * @param <U> the type of the implementation
-     * @param type the type of the implementation
-     * @return the public constructor
-     * @throws NoPublicConstructorFoundException if no public constructor is found
-     */
-    private static <U> Constructor<?> TryGetPublicConstructor(Class<U> type)
-            throws NoPublicConstructorFoundException {
-        Constructor<?> constructor;
-        try {
-            constructor = Arrays.stream(type.getDeclaredConstructors())
-                    .filter(c -> Modifier.isPublic(c.getModifiers()))
-                    .min((c1, c2) -> Integer.compare(c1.getParameterCount(), c2.getParameterCount()))
-                    .orElseThrow(() -> new RuntimeException(new NoPublicConstructorFoundException(
-                            "No public constructor found for " + type.getName())));
-        } catch (RuntimeException e) {
-            if (e.getCause() instanceof NoPublicConstructorFoundException)
-                throw (NoPublicConstructorFoundException) e.getCause();
-            else
-                throw e;
-        }
-        return constructor;
+        current().addService(serviceType, implementationType);
     }
 
     /**
      * Registers a singleton service implementation.
-     * 
+     *
      * @param <T>                the type of the service
      * @param <U>                the type of the implementation
      * @param serviceType        the type of the service
      * @param implementationType the type of the implementation
      * @throws IllegalArgumentException          if the service type or
      *                                           implementation type
-     *                                           is null
+     *                                           is null, or its constructor
+     *                                           cannot be accessed
      * @throws NoPublicConstructorFoundException if no public constructor is found
      *                                           for the implementation type
+     * @see ServiceContainer#addSingleton(Class, Class)
      */
     public static <T, U extends T> void addSingleton(Class<T> serviceType, Class<U> implementationType)
             throws IllegalArgumentException, NoPublicConstructorFoundException {
-        Validator.validateNotNull(serviceType, "serviceType");
-        Validator.validateNotNull(implementationType, "implementationType");
-        Constructor<?> constructor = TryGetPublicConstructor(implementationType);
-        var params = constructor.getParameters();
-
-        ServiceProvider<T> provider = new ServiceProvider<T>() {
-            private T instance;
+        current().addSingleton(serviceType, implementationType);
+    }
 
-            @Override
-            public T provide() {
-                if (instance == null) {
-                    try {
-                        var args = Arrays.stream(params).map(p -> Services.getService(p.getType())).toArray();
-                        instance = implementationType.cast(constructor.newInstance(args));
-                    } catch (Exception e) {
-                        throw new RuntimeException(e);
-                    }
-                }
-                return instance;
-            }
-        };
-        Services.addService(serviceType, provider);
+    /**
+     * Gets a handle of a service, for looking it up often. The handle belongs
+     * to the container of the calling thread.
+     *
+     * @param <T>         the type of the service
+     * @param serviceType the type of the service
+     * @return the handle
+     * @throws IllegalArgumentException if the service type is null
+     * @see ServiceContainer#handle(Class)
+     */
+    public static <T> ServiceHandle<T> handle(Class<T> serviceType) throws IllegalArgumentException {
+        return current().handle(serviceType);
     }
 
     /**
      * Gets a service.
-     * 
+     *
      * @param <T>         the type of the service
      * @param serviceType the type of the service
      * @return the service
      * @throws IllegalArgumentException if the service type is null
      * @throws ServiceNotFoundException if the service is not found
+     * @see ServiceContainer#getService(Class)
      */
     public static <T> T getService(Class<T> serviceType)
             throws IllegalArgumentException, ServiceNotFoundException {
-        Validator.validateNotNull(serviceType, "serviceType");
-        var provider = services.get(serviceType);
-        if (provider == null)
-            throw new ServiceNotFoundException("Service not found: " + serviceType.getName());
-
-        return serviceType.cast(provider.provide());
+        return current().getService(serviceType);
     }
 }
@@ -0,0 +1,150 @@
+package pepse.util;
+
+/**
+ * A counter-based random number generator, with no state at all.
+ * Every number is a hash of a seed, a stream, a position and an index, made of
+ * rounds of the SplitMix64 finalizer. The same arguments always give the same
+ * number, on any thread and in any order, and drawing a number allocates
+ * nothing. Streams separate unrelated uses of the same seed and position, such
+ * as the trees and the leaves of a column.
+ *
+ * @author Oryan Hassidim
+ */
+public final class StatelessRandom {
+    /**
+     * The golden ratio increment of SplitMix64, spreading consecutive keys.
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    /**
+     * The scale of a 24 bit integer to a float in [0, 1).
+     */
+    private static final float FLOAT_UNIT = 0x1.0p-24f;
+    /**
+     * The scale of a 53 bit integer to a double in [0, 1).
+     */
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    /**
+     * The number of low bits dropped for a float.
+     */
+    private static final int FLOAT_SHIFT = 40;
+    /**
+     * The number of low bits dropped for a double.
+     */
+    private static final int DOUBLE_SHIFT = 11;
+    /**
+     * The number of bits of an int.
+     */
+    private static final int INT_BITS = 32;
+
+    /**
+     * A private constructor to prevent instantiation.
+     */
+    private StatelessRandom() {
+    }
+
+    /**
+     * Returns the random long of a key.
+     *
+     * @param seed   the seed
+     * @param stream the stream
+     * @param x      the position
+     * @param index  the index of the number in its stream and position
+     * @return a uniformly distributed long
+     */
+    public static long nextLong(long seed, int stream, long x, long index) {
+        var z = mix(seed + (stream + 1) * GOLDEN_GAMMA);
+        z = mix(z + x * GOLDEN_GAMMA);
+        return mix(z + index * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Returns the random int of a key, in a range.
+     *
+     * @param seed   the seed
+     * @param stream the stream
+     * @param x      the position
+     * @param index  the index of the number in its stream and position
+     * @param origin the least value (inclusive)
+     * @param bound  the upper bound (exclusive), greater than origin
+     * @return a uniformly distributed int in [origin, bound)
+     */
+    public static int nextInt(long seed, int stream, long x, long index, int origin, int bound) {
+        var range = (long) bound - origin;
+        return (int) (origin + (((nextLong(seed, stream, x, index) >>> INT_BITS) * range) >>> INT_BITS));
+    }
+
+    /**
+     * Returns the random float of a key.
+     *
+     * @param seed   the seed
+     * @param stream the stream
+     * @param x      the position
+     * @param index  the index of the number in its stream and position
+     * @return a uniformly distributed float in [0, 1)
+     */
+    public static float nextFloat(long seed, int stream, long x, long index) {
+        return (nextLong(seed, stream, x, index) >>> FLOAT_SHIFT) * FLOAT_UNIT;
+    }
+
+    /**
+     * Returns the random float of a key, in a range.
+     *
+     * @param seed   the seed
+     * @param stream the stream
+     * @param x      the position
+     * @param index  the index of the number in its stream and position
+     * @param origin the least value (inclusive)
+     * @param bound  the upper bound (exclusive)
+     * @return a uniformly distributed float in [origin, bound)
+     */
+    public static float nextFloat(long seed, int stream, long x, long index, float origin, float bound) {
+        var value = origin + nextFloat(seed, stream, x, index) * (bound - origin);
+        // rounding may reach the bound
+        return value < bound ? value : Math.nextDown(bound);
+    }
+
+    /**
+     * Returns the random double of a key.
+     *
+     * @param seed   the seed
+     * @param stream the stream
+     * @param x      the position
+     * @param index  the index of the number in its stream and position
+     * @return a uniformly distributed double in [0, 1)
+     */
+    public static double nextDouble(long seed, int stream, long x, long index) {
+        return (nextLong(seed, stream, x, index) >>> DOUBLE_SHIFT) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Returns the normally distributed random double of a key, by the
+     * Box-Muller transform of two uniform numbers drawn from the same key.
+     *
+     * @param seed   the seed
+     * @param stream the stream
+     * @param x      the position
+     * @param index  the index of the number in its stream and position
+     * @param mean   the mean
+     * @param stddev the standard deviation
+     * @return a normally distributed double
+     */
+    public static double nextGaussian(long seed, int stream, long x, long index, double mean, double stddev) {
+        var bits = nextLong(seed, stream, x, index);
+        // 1 - u keeps the logarithm finite
+        var u1 = 1 - (bits >>> DOUBLE_SHIFT) * DOUBLE_UNIT;
+        var u2 = (mix(bits) >>> DOUBLE_SHIFT) * DOUBLE_UNIT;
+        return mean + stddev * Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    /**
+     * Scrambles the bits of a 64 bit value (the SplitMix64 finalizer).
+     *
+     * @param z the value
+     * @return the scrambled value
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
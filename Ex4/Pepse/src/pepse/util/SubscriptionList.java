@@ -0,0 +1,206 @@
+package pepse.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * The subscriptions of an event, in the order they were added.
+ * The subscriptions are kept in an array with spare capacity, next to a map
+ * from their handlers to their indices, so adding and removing a handler take
+ * amortized constant time: adding appends, and removing leaves a hole, which
+ * invoking skips, until holes fill half the array and it is compacted.
+ * While the event is invoked, the array being iterated is never modified: the
+ * first change copies it, so handlers added or removed by the handlers take
+ * effect from the next invocation.
+ *
+ * @param <T> The subscription type.
+ * @author Oryan Hassidim
+ */
+final class SubscriptionList<T> {
+    /**
+     * The capacity of the array when the first subscription is added.
+     */
+    private static final int INITIAL_CAPACITY = 4;
+    /**
+     * The empty array, shared by all the lists.
+     */
+    private static final Object[] EMPTY = new Object[0];
+
+    /**
+     * Gets the handler of a subscription.
+     */
+    private final Function<T, Object> handlerOf;
+    /**
+     * The subscriptions, with holes where subscriptions were removed.
+     */
+    private Object[] items = EMPTY;
+    /**
+     * The number of used slots of the array, holes included.
+     */
+    private int end = 0;
+    /**
+     * The number of subscriptions.
+     */
+    private int size = 0;
+    /**
+     * The indices of the subscriptions, by their handlers.
+     */
+    private final Map<Object, Integer> indices = new HashMap<>();
+    /**
+     * The number of invocations in progress.
+     */
+    private int invocations = 0;
+    /**
+     * Whether an invocation in progress iterates the current array.
+     */
+    private boolean shared = false;
+
+    /**
+     * Creates a new subscription list.
+     *
+     * @param handlerOf Gets the handler of a subscription.
+     */
+    SubscriptionList(Function<T, Object> handlerOf) {
+        this.handlerOf = handlerOf;
+    }
+
+    /**
+     * Gets the number of subscriptions.
+     *
+     * @return The number of subscriptions.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether a handler was added.
+     *
+     * @param handler The handler.
+     * @return true if the handler was added, false otherwise.
+     */
+    boolean contains(Object handler) {
+        return indices.containsKey(handler);
+    }
+
+    /**
+     * Performs an action for every subscription, in the order they were added.
+     *
+     * @param action The action.
+     */
+    @SuppressWarnings("unchecked")
+    void forEach(Consumer<T> action) {
+        for (int i = 0; i < end; i++) {
+            if (items[i] != null)
+                action.accept((T) items[i]);
+        }
+    }
+
+    /**
+     * Starts an invocation, so the array is not modified until it ends.
+     *
+     * @return The array to iterate up to {@link #end()}, skipping nulls.
+     */
+    Object[] begin() {
+        invocations++;
+        shared = true;
+        return items;
+    }
+
+    /**
+     * Gets the number of used slots of the array, holes included.
+     *
+     * @return The number of used slots.
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * Ends an invocation started by {@link #begin()}.
+     */
+    void finish() {
+        if (--invocations == 0)
+            shared = false;
+    }
+
+    /**
+     * Adds a subscription, unless its handler was already added.
+     *
+     * @param handler      The handler.
+     * @param subscription The subscription.
+     * @return true if the subscription was added, false otherwise.
+     */
+    boolean add(Object handler, T subscription) {
+        if (indices.containsKey(handler))
+            return false;
+        if (shared || end == items.length)
+            reallocate(Math.max(INITIAL_CAPACITY, 2 * size + 1));
+        indices.put(handler, end);
+        items[end++] = subscription;
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes the subscription of a handler, if it was added.
+     *
+     * @param handler The handler.
+     * @return The removed subscription, or null if the handler was not added.
+     */
+    @SuppressWarnings("unchecked")
+    T remove(Object handler) {
+        var index = indices.remove(handler);
+        if (index == null)
+            return null;
+        var removed = (T) items[index];
+        size--;
+        if (size == 0) {
+            clear();
+            return removed;
+        }
+        if (shared) {
+            items = items.clone();
+            shared = false;
+        }
+        items[index] = null;
+        if (size < end / 2)
+            reallocate(items.length);
+        return removed;
+    }
+
+    /**
+     * Removes all the subscriptions.
+     */
+    void clear() {
+        items = EMPTY;
+        end = 0;
+        size = 0;
+        indices.clear();
+        shared = false;
+    }
+
+    /**
+     * Copies the subscriptions, without the holes, to a new array, which no
+     * invocation iterates.
+     *
+     * @param capacity The capacity of the new array.
+     */
+    @SuppressWarnings("unchecked")
+    private void reallocate(int capacity) {
+        var compacted = new Object[capacity];
+        var count = 0;
+        for (int i = 0; i < end; i++) {
+            var subscription = items[i];
+            if (subscription == null)
+                continue;
+            indices.put(handlerOf.apply((T) subscription), count);
+            compacted[count++] = subscription;
+        }
+        items = compacted;
+        end = count;
+        shared = false;
+    }
+}
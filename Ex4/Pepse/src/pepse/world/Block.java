@@ -4,17 +4,28 @@ import danogl.GameObject;
 import danogl.components.GameObjectPhysics;
 import danogl.gui.rendering.Renderable;
 import danogl.util.Vector2;
+import pepse.util.ObjectPool;
+import pepse.util.Recyclable;
 
 /**
  * A class representing a block of ground in the game world.
  * 
  * @author Oryan Hassidim
  */
-public class Block extends GameObject {
+public class Block extends GameObject implements Recyclable {
     /**
      * The size of a block.
      */
     public static final int SIZE = 30;
+    /**
+     * The maximal number of free blocks kept for reuse.
+     */
+    private static final int POOL_CAPACITY = 1024;
+    /**
+     * The pool of free blocks.
+     */
+    private static final ObjectPool<Block> POOL = new ObjectPool<>("blocks",
+            () -> new Block(Vector2.ZERO, null), POOL_CAPACITY);
 
     /**
      * Creates a new block at the given position.
@@ -23,11 +34,57 @@ public class Block extends GameObject {
      * @param renderable    the renderable to use for the block
      */
     public Block(Vector2 topLeftCorner, Renderable renderable) {
-        super(topLeftCorner, Vector2.ONES.mult(SIZE), renderable);
+        this(topLeftCorner, Vector2.ONES.mult(SIZE), renderable);
+    }
+
+    /**
+     * Creates a new block of merged tiles at the given position.
+     * 
+     * @param topLeftCorner the top left corner of the block
+     * @param dimensions    the dimensions of the block, multiples of the block
+     *                      size
+     * @param renderable    the renderable to use for the block
+     */
+    public Block(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        super(topLeftCorner, dimensions, renderable);
         physics().preventIntersectionsFromDirection(Vector2.ZERO);
         physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
     }
 
+    /**
+     * Gets a block at the given position, reusing a recycled one if possible.
+     * 
+     * @param topLeftCorner the top left corner of the block
+     * @param dimensions    the dimensions of the block, multiples of the block
+     *                      size
+     * @param renderable    the renderable to use for the block
+     * @return the block
+     */
+    public static Block obtain(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        var block = POOL.obtain();
+        block.setDimensions(dimensions);
+        block.setTopLeftCorner(topLeftCorner);
+        block.renderer().setRenderable(renderable);
+        return block;
+    }
+
+    /**
+     * Gets the pool of free blocks.
+     * 
+     * @return the pool
+     */
+    public static ObjectPool<Block> getPool() {
+        return POOL;
+    }
+
+    /**
+     * Returns the block to the pool. It must already be out of the game.
+     */
+    @Override
+    public void recycle() {
+        POOL.release(this);
+    }
+
     /**
      * Returns if the block is equal to another object, which is true if the
      * other object is a block and has the same top left corner.
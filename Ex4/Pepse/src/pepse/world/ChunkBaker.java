@@ -0,0 +1,198 @@
+package pepse.world;
+
+import danogl.gui.rendering.ImageRenderable;
+import danogl.gui.rendering.Renderable;
+
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A class for baking the ground tiles of chunks into single images.
+ * The ground never changes once generated, so each chunk is painted once, on
+ * the thread generating it, and then drawn with a single image per frame
+ * instead of a rectangle per tile. The baked chunks are kept in a least
+ * recently used cache.
+ * All the methods are safe to call from any thread.
+ *
+ * @author Oryan Hassidim
+ */
+public class ChunkBaker {
+    /**
+     * The default number of baked chunks to keep. Comfortably more than are
+     * loaded and prefetched at once.
+     */
+    public static final int DEFAULT_CAPACITY = 24;
+
+    /**
+     * The ground of a chunk, baked into an image.
+     */
+    public static final class BakedChunk {
+        /**
+         * The renderable of the image.
+         */
+        private final Renderable renderable;
+        /**
+         * The y coordinate of the top of the image.
+         */
+        private final int top;
+        /**
+         * The width of the image.
+         */
+        private final int width;
+        /**
+         * The height of the image.
+         */
+        private final int height;
+
+        /**
+         * Creates a new baked chunk.
+         *
+         * @param renderable the renderable of the image
+         * @param top        the y coordinate of the top of the image
+         * @param width      the width of the image
+         * @param height     the height of the image
+         */
+        private BakedChunk(Renderable renderable, int top, int width, int height) {
+            this.renderable = renderable;
+            this.top = top;
+            this.width = width;
+            this.height = height;
+        }
+
+        /**
+         * Gets the renderable of the image.
+         *
+         * @return the renderable
+         */
+        public Renderable getRenderable() {
+            return renderable;
+        }
+
+        /**
+         * Gets the y coordinate of the top of the image, the highest surface in
+         * the chunk.
+         *
+         * @return the y coordinate of the top
+         */
+        public int getTop() {
+            return top;
+        }
+
+        /**
+         * Gets the width of the image.
+         *
+         * @return the width
+         */
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * Gets the height of the image.
+         *
+         * @return the height
+         */
+        public int getHeight() {
+            return height;
+        }
+    }
+
+    /**
+     * The tile map, for the colors of the tiles.
+     */
+    private final TileMap tiles;
+    /**
+     * The baked chunks, by index, from the least recently used.
+     */
+    private final Map<Integer, BakedChunk> baked;
+
+    /**
+     * Creates a new chunk baker, keeping the default number of chunks.
+     *
+     * @param tiles the tile map, for the colors of the tiles
+     */
+    public ChunkBaker(TileMap tiles) {
+        this(tiles, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new chunk baker.
+     *
+     * @param tiles    the tile map, for the colors of the tiles
+     * @param capacity the number of baked chunks to keep
+     */
+    public ChunkBaker(TileMap tiles, int capacity) {
+        this.tiles = tiles;
+        this.baked = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BakedChunk> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Bakes the ground of a chunk and caches it, replacing any earlier baking of
+     * the chunk.
+     *
+     * @param index  the index of the chunk
+     * @param ground the ground of the chunk
+     * @return the baked chunk, or null if the chunk has no tiles
+     */
+    public BakedChunk bake(int index, GroundStrip ground) {
+        var top = Integer.MAX_VALUE;
+        var bottom = Integer.MIN_VALUE;
+        for (int i = 0; i < ground.columns(); i++) {
+            var count = ground.tilesAt(i).length;
+            if (count == 0)
+                continue;
+            top = Math.min(top, ground.heightAt(i));
+            bottom = Math.max(bottom, ground.heightAt(i) + count * Block.SIZE);
+        }
+        if (top >= bottom)
+            return null;
+
+        var width = ground.columns() * Block.SIZE;
+        var image = new BufferedImage(width, bottom - top, BufferedImage.TYPE_INT_ARGB);
+        var g = image.createGraphics();
+        for (int i = 0; i < ground.columns(); i++) {
+            var column = ground.tilesAt(i);
+            var y = ground.heightAt(i) - top;
+            for (int j = 0; j < column.length; j++) {
+                g.setColor(tiles.colorOf(column[j]));
+                g.fillRect(i * Block.SIZE, y + j * Block.SIZE, Block.SIZE, Block.SIZE);
+            }
+        }
+        g.dispose();
+
+        var chunk = new BakedChunk(new ImageRenderable(image), top, width, bottom - top);
+        synchronized (baked) {
+            baked.put(index, chunk);
+        }
+        return chunk;
+    }
+
+    /**
+     * Gets a baked chunk, marking it as recently used.
+     *
+     * @param index the index of the chunk
+     * @return the baked chunk, or null if it is not cached
+     */
+    public BakedChunk get(int index) {
+        synchronized (baked) {
+            return baked.get(index);
+        }
+    }
+
+    /**
+     * Gets the number of cached chunks.
+     *
+     * @return the number of cached chunks
+     */
+    public int size() {
+        synchronized (baked) {
+            return baked.size();
+        }
+    }
+}
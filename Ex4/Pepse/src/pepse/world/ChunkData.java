@@ -0,0 +1,67 @@
+package pepse.world;
+
+import pepse.world.trees.TreeData;
+
+import java.util.List;
+
+/**
+ * A pure-data description of a world chunk: its ground and its trees.
+ * Chunk data is generated off the game thread and handed to the game thread,
+ * which turns it into game objects.
+ *
+ * @author Oryan Hassidim
+ */
+public final class ChunkData {
+    /**
+     * The index of the chunk.
+     */
+    private final int index;
+    /**
+     * The ground of the chunk.
+     */
+    private final GroundStrip ground;
+    /**
+     * The trees of the chunk.
+     */
+    private final List<TreeData> trees;
+
+    /**
+     * Creates a new chunk data.
+     *
+     * @param index  the index of the chunk
+     * @param ground the ground of the chunk
+     * @param trees  the trees of the chunk
+     */
+    public ChunkData(int index, GroundStrip ground, List<TreeData> trees) {
+        this.index = index;
+        this.ground = ground;
+        this.trees = trees;
+    }
+
+    /**
+     * Gets the index of the chunk.
+     *
+     * @return the index of the chunk
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the ground of the chunk.
+     *
+     * @return the ground of the chunk
+     */
+    public GroundStrip getGround() {
+        return ground;
+    }
+
+    /**
+     * Gets the trees of the chunk.
+     *
+     * @return the trees of the chunk
+     */
+    public List<TreeData> getTrees() {
+        return trees;
+    }
+}
@@ -0,0 +1,232 @@
+package pepse.world;
+
+import pepse.world.trees.Flora;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A class for generating chunk data on background worker threads.
+ * Workers only build pure data, which is handed to the game thread through a
+ * queue, so generating a chunk costs the game thread nothing.
+ * The generators share a single pool of workers, a worker per spare core, so
+ * running several worlds in one process does not multiply the threads.
+ * A chunk failing on a worker is generated again on the game thread when
+ * polled, so the failure is either recovered from or thrown where the game
+ * sees it, and the chunk is never left requested forever.
+ * All the methods except {@link #generate(int)} must be called from the game
+ * thread.
+ *
+ * @author Oryan Hassidim
+ */
+public class ChunkGenerator implements AutoCloseable {
+    /**
+     * A chunk whose generation failed on a worker.
+     */
+    private static final class Failure {
+        /**
+         * The index of the chunk.
+         */
+        private final int index;
+        /**
+         * The cause of the failure.
+         */
+        private final RuntimeException cause;
+
+        /**
+         * Creates a new failure.
+         *
+         * @param index the index of the chunk
+         * @param cause the cause of the failure
+         */
+        private Failure(int index, RuntimeException cause) {
+            this.index = index;
+            this.cause = cause;
+        }
+    }
+
+    /**
+     * The workers shared by the generators, created on first use.
+     */
+    private static final class SharedWorkers {
+        /**
+         * The workers, a worker per spare core.
+         */
+        private static final ExecutorService WORKERS = newWorkers(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * The ground manager.
+     */
+    private final GroundManager groundManager;
+    /**
+     * The seed of the world.
+     */
+    private final int seed;
+    /**
+     * The worker threads.
+     */
+    private final ExecutorService workers;
+    /**
+     * Whether the workers belong to this generator alone, and are stopped when
+     * it is closed.
+     */
+    private final boolean ownsWorkers;
+    /**
+     * Whether the generator was closed, so the chunks not generated yet are
+     * dropped.
+     */
+    private volatile boolean closed = false;
+    /**
+     * The generated chunks, waiting to be taken by the game thread.
+     */
+    private final ConcurrentLinkedQueue<ChunkData> ready = new ConcurrentLinkedQueue<>();
+    /**
+     * The chunks whose generation failed, waiting to be retried by the game
+     * thread.
+     */
+    private final ConcurrentLinkedQueue<Failure> failed = new ConcurrentLinkedQueue<>();
+    /**
+     * The indices of the requested chunks which were not taken yet.
+     */
+    private final Set<Integer> pending = new HashSet<>();
+    /**
+     * The baker of the ground of the generated chunks.
+     */
+    private final ChunkBaker baker;
+
+    /**
+     * Creates a new chunk generator, on the workers shared by the generators.
+     *
+     * @param groundManager the ground manager
+     * @param seed          the seed of the world
+     */
+    public ChunkGenerator(GroundManager groundManager, int seed) {
+        this(groundManager, seed, SharedWorkers.WORKERS, false);
+    }
+
+    /**
+     * Creates a new chunk generator, with workers of its own.
+     *
+     * @param groundManager the ground manager
+     * @param seed          the seed of the world
+     * @param workers       the number of worker threads
+     */
+    public ChunkGenerator(GroundManager groundManager, int seed, int workers) {
+        this(groundManager, seed, newWorkers(workers), true);
+    }
+
+    /**
+     * Creates a new chunk generator.
+     *
+     * @param groundManager the ground manager
+     * @param seed          the seed of the world
+     * @param workers       the workers
+     * @param ownsWorkers   whether the workers belong to this generator alone
+     */
+    private ChunkGenerator(GroundManager groundManager, int seed, ExecutorService workers, boolean ownsWorkers) {
+        this.groundManager = groundManager;
+        this.seed = seed;
+        this.baker = new ChunkBaker(groundManager.getTileMap());
+        this.workers = workers;
+        this.ownsWorkers = ownsWorkers;
+    }
+
+    /**
+     * Generates the data of a chunk on the calling thread, and bakes its ground.
+     *
+     * @param index the index of the chunk
+     * @return the chunk data
+     */
+    public ChunkData generate(int index) {
+        var minX = index * WorldChunk.WIDTH;
+        var maxX = minX + WorldChunk.WIDTH;
+        var ground = groundManager.planInRange(minX, maxX);
+        baker.bake(index, ground);
+        return new ChunkData(index, ground, Flora.planInRange(minX, maxX, seed, groundManager));
+    }
+
+    /**
+     * Gets the baker of the ground of the generated chunks.
+     *
+     * @return the chunk baker
+     */
+    public ChunkBaker getBaker() {
+        return baker;
+    }
+
+    /**
+     * Requests a chunk to be generated on a worker thread. Does nothing if the
+     * chunk was already requested and not taken yet.
+     *
+     * @param index the index of the chunk
+     */
+    public void request(int index) {
+        if (!pending.add(index))
+            return;
+        workers.execute(() -> {
+            if (closed)
+                return;
+            try {
+                ready.add(generate(index));
+            } catch (RuntimeException e) {
+                failed.add(new Failure(index, e));
+            }
+        });
+    }
+
+    /**
+     * Takes a generated chunk, if any. A chunk whose generation failed on a
+     * worker is generated again right away, on the calling thread.
+     *
+     * @return the chunk data, or null if no chunk is ready
+     * @throws RuntimeException if a chunk failed again, with the worker's
+     *                          failure suppressed in it
+     */
+    public ChunkData poll() {
+        var data = ready.poll();
+        if (data != null) {
+            pending.remove(data.getIndex());
+            return data;
+        }
+        var failure = failed.poll();
+        if (failure == null)
+            return null;
+        pending.remove(failure.index);
+        try {
+            return generate(failure.index);
+        } catch (RuntimeException e) {
+            e.addSuppressed(failure.cause);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the chunks not generated yet, and stops the worker threads if they
+     * belong to this generator alone.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (ownsWorkers)
+            workers.shutdownNow();
+    }
+
+    /**
+     * Creates a pool of daemon worker threads.
+     *
+     * @param count the number of threads
+     * @return the workers
+     */
+    private static ExecutorService newWorkers(int count) {
+        return Executors.newFixedThreadPool(count, runnable -> {
+            var thread = new Thread(runnable, "chunk-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
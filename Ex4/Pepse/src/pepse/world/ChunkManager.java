@@ -0,0 +1,213 @@
+package pepse.world;
+
+import danogl.collisions.GameObjectCollection;
+import pepse.GameState;
+import pepse.util.Services;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A class for streaming the world in and out of the game, chunk by chunk.
+ * Chunks are generated in the background, ahead of the avatar in its direction
+ * of travel, and only turned into game objects on the game thread once their
+ * data is ready, a few columns per frame.
+ *
+ * @author Oryan Hassidim
+ */
+public class ChunkManager implements AutoCloseable {
+    /**
+     * The number of chunks to generate ahead of the loaded range, in the
+     * direction of travel.
+     */
+    private static final int PREFETCH_CHUNKS = 2;
+
+    /**
+     * The chunk generator.
+     */
+    private final ChunkGenerator generator;
+    /**
+     * The chunk materializer.
+     */
+    private final ChunkMaterializer materializer;
+    /**
+     * The loaded chunks, by index.
+     */
+    private final Map<Integer, WorldChunk> chunks = new HashMap<>();
+    /**
+     * The generated chunks out of the loaded range, by index.
+     */
+    private final Map<Integer, ChunkData> prefetched = new HashMap<>();
+    /**
+     * The index of the most left chunk in the loaded range.
+     */
+    private int minIndex = 0;
+    /**
+     * The index of the most right chunk in the loaded range.
+     */
+    private int maxIndex = -1;
+    /**
+     * The sign of the direction of travel.
+     */
+    private int direction = 0;
+
+    /**
+     * Creates a new chunk manager.
+     *
+     * @param gameObjects the game objects collection
+     * @param staticLayer the layer for the ground and the trees
+     * @param leavesLayer the layer for the leaves
+     * @param fruitsLayer the layer for the fruits
+     * @param generator   the chunk generator
+     */
+    public ChunkManager(GameObjectCollection gameObjects, int staticLayer, int leavesLayer, int fruitsLayer,
+            ChunkGenerator generator) {
+        this.generator = generator;
+        this.materializer = new ChunkMaterializer(gameObjects, staticLayer, leavesLayer, fruitsLayer,
+                Services.getService(GroundManager.class), Services.getService(GameState.class));
+    }
+
+    /**
+     * Sets the per-frame budget for adding and removing objects.
+     *
+     * @param objects the maximal number of objects added or removed per frame
+     * @param nanos   the maximal time spent per frame, in nanoseconds
+     * @see ChunkMaterializer#setBudget(int, long)
+     */
+    public void setBudget(int objects, long nanos) {
+        materializer.setBudget(objects, nanos);
+    }
+
+    /**
+     * Moves the loaded range: chunks out of it are unloaded, missing chunks are
+     * requested from the generator, and chunks ahead of it in the direction of
+     * travel are prefetched. Then starts loading the chunks whose data became
+     * ready, and does this frame's share of adding and removing objects.
+     *
+     * @param minX      the minimum x coordinate
+     * @param maxX      the maximum x coordinate
+     * @param direction the direction of travel, only its sign matters
+     */
+    public void loadRange(int minX, int maxX, float direction) {
+        var newMin = WorldChunk.indexOf(minX);
+        var newMax = WorldChunk.indexOf(maxX - 1);
+        var sign = (int) Math.signum(direction);
+        if (newMin != minIndex || newMax != maxIndex || sign != this.direction) {
+            minIndex = newMin;
+            maxIndex = newMax;
+            this.direction = sign;
+            var it = chunks.values().iterator();
+            while (it.hasNext()) {
+                var chunk = it.next();
+                if (!inRange(chunk.getIndex())) {
+                    materializer.unload(chunk);
+                    it.remove();
+                }
+            }
+            prefetched.keySet().removeIf(i -> !inPrefetchRange(i));
+
+            // walk towards the direction of travel, so the chunks needed first are
+            // queued first
+            var from = minIndex - (sign < 0 ? PREFETCH_CHUNKS : 0);
+            var to = maxIndex + (sign > 0 ? PREFETCH_CHUNKS : 0);
+            var step = sign < 0 ? -1 : 1;
+            for (int i = sign < 0 ? to : from; i >= from && i <= to; i += step) {
+                if (inRange(i) && prefetched.containsKey(i))
+                    load(prefetched.remove(i));
+                else if (!chunks.containsKey(i) && !prefetched.containsKey(i))
+                    generator.request(i);
+            }
+        }
+
+        ChunkData data;
+        while ((data = generator.poll()) != null) {
+            var index = data.getIndex();
+            if (chunks.containsKey(index))
+                continue;
+            if (inRange(index))
+                load(data);
+            else if (inPrefetchRange(index))
+                prefetched.put(index, data);
+        }
+        materializer.update();
+    }
+
+    /**
+     * Makes sure all the chunks in the given range are fully loaded, generating
+     * and creating the missing ones right away. The range should be inside the
+     * loaded range.
+     *
+     * @param minX the minimum x coordinate
+     * @param maxX the maximum x coordinate
+     */
+    public void loadRangeNow(int minX, int maxX) {
+        for (int i = WorldChunk.indexOf(minX); i <= WorldChunk.indexOf(maxX - 1); i++) {
+            if (!chunks.containsKey(i)) {
+                var data = prefetched.remove(i);
+                load(data != null ? data : generator.generate(i));
+            }
+            materializer.finish(chunks.get(i));
+        }
+    }
+
+    /**
+     * Gets the number of loaded chunks.
+     *
+     * @return the number of loaded chunks
+     */
+    public int loadedChunks() {
+        return chunks.size();
+    }
+
+    /**
+     * Gets the number of handlers of the objects of the loaded chunks, reacting
+     * to the avatar state.
+     *
+     * @return the number of handlers
+     */
+    public int chunkListeners() {
+        var count = 0;
+        for (var chunk : chunks.values()) {
+            count += chunk.onAvatarStateChanged().listenerCount();
+        }
+        return count;
+    }
+
+    /**
+     * Stops the chunk generator.
+     */
+    @Override
+    public void close() {
+        generator.close();
+    }
+
+    /**
+     * Checks whether a chunk is in the loaded range.
+     *
+     * @param index the index of the chunk
+     * @return true if the chunk is in the loaded range, false otherwise
+     */
+    private boolean inRange(int index) {
+        return index >= minIndex && index <= maxIndex;
+    }
+
+    /**
+     * Checks whether a chunk is close enough to the loaded range to keep its
+     * generated data.
+     *
+     * @param index the index of the chunk
+     * @return true if the chunk data should be kept, false otherwise
+     */
+    private boolean inPrefetchRange(int index) {
+        return index >= minIndex - PREFETCH_CHUNKS && index <= maxIndex + PREFETCH_CHUNKS;
+    }
+
+    /**
+     * Starts loading a chunk.
+     *
+     * @param data the chunk data
+     */
+    private void load(ChunkData data) {
+        chunks.put(data.getIndex(), materializer.load(data));
+    }
+}
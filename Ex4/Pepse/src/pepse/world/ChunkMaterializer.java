@@ -0,0 +1,278 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import pepse.GameState;
+import pepse.util.Recyclable;
+import pepse.world.trees.Flora;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A class for turning chunk data into game objects, and removing them, a few
+ * columns at a time under a per-frame budget.
+ * Adding a whole chunk in one frame creates hundreds of objects and
+ * transitions at once, so the work is spread over as many frames as the budget
+ * requires. Chunks are loaded a full window width before they become visible,
+ * so the budget only delays objects nobody sees yet.
+ *
+ * @author Oryan Hassidim
+ */
+public class ChunkMaterializer {
+    /**
+     * The default maximal number of objects added or removed per frame.
+     */
+    public static final int DEFAULT_OBJECT_BUDGET = 400;
+    /**
+     * The default maximal time spent per frame, in nanoseconds.
+     */
+    public static final long DEFAULT_TIME_BUDGET = 3_000_000L;
+
+    /**
+     * The materialization of a single chunk.
+     */
+    private static final class Job {
+        /**
+         * The chunk.
+         */
+        private final WorldChunk chunk;
+        /**
+         * The chunk data.
+         */
+        private final ChunkData data;
+        /**
+         * The index of the next column to create.
+         */
+        private int column = 0;
+        /**
+         * The index of the next tree to create.
+         */
+        private int tree = 0;
+
+        /**
+         * Creates a new job.
+         *
+         * @param chunk the chunk
+         * @param data  the chunk data
+         */
+        private Job(WorldChunk chunk, ChunkData data) {
+            this.chunk = chunk;
+            this.data = data;
+        }
+
+        /**
+         * Checks whether the whole chunk was created.
+         *
+         * @return true if the job is done, false otherwise
+         */
+        private boolean isDone() {
+            return column >= data.getGround().columns() && tree >= data.getTrees().size();
+        }
+    }
+
+    /**
+     * The game objects collection.
+     */
+    private final GameObjectCollection gameObjects;
+    /**
+     * The layer for the ground and the trees.
+     */
+    private final int staticLayer;
+    /**
+     * The layer for the leaves.
+     */
+    private final int leavesLayer;
+    /**
+     * The layer for the fruits.
+     */
+    private final int fruitsLayer;
+    /**
+     * The ground manager.
+     */
+    private final GroundManager groundManager;
+    /**
+     * The game state.
+     */
+    private final GameState gameState;
+    /**
+     * The chunks being created, in order.
+     */
+    private final ArrayDeque<Job> loading = new ArrayDeque<>();
+    /**
+     * The chunks being removed, in order.
+     */
+    private final ArrayDeque<WorldChunk> unloading = new ArrayDeque<>();
+    /**
+     * The objects removed in the last frame, recycled at the start of the next
+     * one, so an object is never added back in the frame it was removed in.
+     */
+    private final List<GameObject> removed = new ArrayList<>();
+    /**
+     * The maximal number of objects added or removed per frame.
+     */
+    private int objectBudget = DEFAULT_OBJECT_BUDGET;
+    /**
+     * The maximal time spent per frame, in nanoseconds.
+     */
+    private long timeBudget = DEFAULT_TIME_BUDGET;
+
+    /**
+     * Creates a new chunk materializer.
+     *
+     * @param gameObjects   the game objects collection
+     * @param staticLayer   the layer for the ground and the trees
+     * @param leavesLayer   the layer for the leaves
+     * @param fruitsLayer   the layer for the fruits
+     * @param groundManager the ground manager
+     * @param gameState     the game state
+     */
+    public ChunkMaterializer(GameObjectCollection gameObjects, int staticLayer, int leavesLayer,
+            int fruitsLayer, GroundManager groundManager, GameState gameState) {
+        this.gameObjects = gameObjects;
+        this.staticLayer = staticLayer;
+        this.leavesLayer = leavesLayer;
+        this.fruitsLayer = fruitsLayer;
+        this.groundManager = groundManager;
+        this.gameState = gameState;
+    }
+
+    /**
+     * Sets the per-frame budget. At least one column is handled every frame,
+     * whatever the budget.
+     *
+     * @param objects the maximal number of objects added or removed per frame
+     * @param nanos   the maximal time spent per frame, in nanoseconds
+     */
+    public void setBudget(int objects, long nanos) {
+        this.objectBudget = objects;
+        this.timeBudget = nanos;
+    }
+
+    /**
+     * Starts creating a chunk. The chunk reacts to the game state right away, and
+     * its objects join the game over the next frames.
+     *
+     * @param data the chunk data
+     * @return the chunk
+     */
+    public WorldChunk load(ChunkData data) {
+        var chunk = new WorldChunk(data.getIndex());
+        chunk.subscribe(gameState);
+        loading.add(new Job(chunk, data));
+        return chunk;
+    }
+
+    /**
+     * Starts removing a chunk, cancelling its creation if still in progress.
+     *
+     * @param chunk the chunk
+     */
+    public void unload(WorldChunk chunk) {
+        chunk.unsubscribe();
+        loading.removeIf(job -> job.chunk == chunk);
+        unloading.add(chunk);
+    }
+
+    /**
+     * Creates the rest of a chunk right away, regardless of the budget.
+     *
+     * @param chunk the chunk
+     */
+    public void finish(WorldChunk chunk) {
+        Iterator<Job> it = loading.iterator();
+        while (it.hasNext()) {
+            var job = it.next();
+            if (job.chunk == chunk) {
+                while (!job.isDone())
+                    step(job);
+                it.remove();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Does this frame's share of work: recycles the objects removed last frame,
+     * then removes, then creates, objects until the budget runs out.
+     */
+    public void update() {
+        var deadline = System.nanoTime() + timeBudget;
+        for (var obj : removed) {
+            if (obj instanceof Recyclable)
+                ((Recyclable) obj).recycle();
+        }
+        removed.clear();
+        var objects = 0;
+        while (!unloading.isEmpty() && objects < objectBudget) {
+            var chunk = unloading.peek();
+            objects += chunk.removeObjects(gameObjects, objectBudget - objects, removed);
+            if (chunk.isEmpty())
+                unloading.poll();
+        }
+        var stepped = false;
+        while (!loading.isEmpty()
+                && (!stepped || objects < objectBudget && System.nanoTime() < deadline)) {
+            var job = loading.peek();
+            objects += step(job);
+            stepped = true;
+            if (job.isDone())
+                loading.poll();
+        }
+    }
+
+    /**
+     * Creates the next run of columns of the same height of a chunk, with the
+     * trees growing on it. A whole run is created at once, so the ground manager
+     * can merge it into a single block.
+     *
+     * @param job the job of the chunk
+     * @return the number of created objects
+     */
+    private int step(Job job) {
+        var chunk = job.chunk;
+        var ground = job.data.getGround();
+        var created = 0;
+        var columnEnd = Float.POSITIVE_INFINITY;
+        if (job.column < ground.columns()) {
+            var end = ground.runEnd(job.column);
+            columnEnd = ground.columnX(end - 1) + Block.SIZE;
+            for (var block : groundManager.createColumns(ground, job.column, end)) {
+                add(chunk, block, staticLayer);
+                created++;
+            }
+            job.column = end;
+        }
+
+        var trees = job.data.getTrees();
+        var onAvatarStateChanged = chunk.onAvatarStateChanged();
+        while (job.tree < trees.size()) {
+            var data = trees.get(job.tree);
+            if (data.getTopLeftCorner().x() + data.getDimensions().x() / 2 >= columnEnd)
+                break;
+            var trunk = Flora.createTree(data, onAvatarStateChanged);
+            add(chunk, trunk, staticLayer);
+            var leaves = Flora.createLeaves(data, onAvatarStateChanged).toList();
+            leaves.forEach(leaf -> add(chunk, leaf, leavesLayer));
+            var fruits = Flora.createFruits(data, trunk, onAvatarStateChanged).toList();
+            fruits.forEach(fruit -> add(chunk, fruit, fruitsLayer));
+            created += 1 + leaves.size() + fruits.size();
+            job.tree++;
+        }
+        return created;
+    }
+
+    /**
+     * Adds an object to the game, as part of a chunk.
+     *
+     * @param chunk the chunk
+     * @param obj   the object
+     * @param layer the layer of the object
+     */
+    private void add(WorldChunk chunk, GameObject obj, int layer) {
+        gameObjects.addGameObject(obj, layer);
+        chunk.add(obj, layer);
+    }
+}
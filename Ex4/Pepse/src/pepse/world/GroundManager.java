@@ -1,5 +1,6 @@
 package pepse.world;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -15,6 +16,79 @@ public interface GroundManager {
      */
     float groundHeightAt(float x);
 
+    /**
+     * Writes the heights of the ground for the block columns in a given range of
+     * x coordinates, from the column containing minX up to the column containing
+     * maxX (exclusive).
+     * 
+     * @param minX the minimum x coordinate
+     * @param maxX the maximum x coordinate
+     * @param out  the array to write the heights into, one per column
+     * @return the number of columns written
+     */
+    default int groundHeightsInRange(int minX, int maxX, int[] out) {
+        minX = Math.floorDiv(minX, Block.SIZE) * Block.SIZE;
+        var count = 0;
+        for (int x = minX; x < maxX; x += Block.SIZE) {
+            out[count++] = (int) groundHeightAt(x);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the tiles of the created ground, for drawing it and for looking tiles
+     * up without going through game objects.
+     * 
+     * @return the tile map
+     */
+    TileMap getTileMap();
+
+    /**
+     * Plans the ground for a given range of x coordinates, without creating any
+     * game object. Safe to call from any thread.
+     * 
+     * @param minX the minimum x coordinate
+     * @param maxX the maximum x coordinate
+     * @return the ground strip for the given range of x coordinates
+     */
+    GroundStrip planInRange(int minX, int maxX);
+
+    /**
+     * Creates the blocks of a single column of a planned ground strip.
+     * 
+     * @param strip  the ground strip
+     * @param column the index of the column in the strip
+     * @return a list of blocks for the given column
+     */
+    List<Block> createColumn(GroundStrip strip, int column);
+
+    /**
+     * Creates the blocks of a range of columns of a planned ground strip.
+     * Implementations may merge the columns into fewer, larger blocks.
+     * 
+     * @param strip the ground strip
+     * @param from  the index of the first column in the strip
+     * @param to    the index after the last column in the strip
+     * @return a list of blocks for the given columns
+     */
+    default List<Block> createColumns(GroundStrip strip, int from, int to) {
+        var blocks = new ArrayList<Block>();
+        for (int i = from; i < to; i++) {
+            blocks.addAll(createColumn(strip, i));
+        }
+        return blocks;
+    }
+
+    /**
+     * Creates the blocks of a planned ground strip.
+     * 
+     * @param strip the ground strip
+     * @return a list of blocks for the given strip
+     */
+    default List<Block> createBlocks(GroundStrip strip) {
+        return createColumns(strip, 0, strip.columns());
+    }
+
     /**
      * Creates a list of blocks for a given range of x coordinates.
      * 
@@ -22,6 +96,8 @@ public interface GroundManager {
      * @param maxX the maximum x coordinate
      * @return a list of blocks for the given range of x coordinates
      */
-    List<Block> createInRange(int minX, int maxX);
+    default List<Block> createInRange(int minX, int maxX) {
+        return createBlocks(planInRange(minX, maxX));
+    }
 
 }
\ No newline at end of file
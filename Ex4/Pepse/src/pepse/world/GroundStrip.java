@@ -0,0 +1,99 @@
+package pepse.world;
+
+/**
+ * A pure-data description of the ground in a range of block columns.
+ * A strip holds no game objects, so it can be built on any thread and turned
+ * into blocks later on the game thread.
+ *
+ * @author Oryan Hassidim
+ */
+public final class GroundStrip {
+    /**
+     * The x coordinate of the first column.
+     */
+    private final int minX;
+    /**
+     * The surface height of every column.
+     */
+    private final int[] heights;
+    /**
+     * The tiles of every column, from the surface down.
+     */
+    private final byte[][] tiles;
+
+    /**
+     * Creates a new ground strip.
+     *
+     * @param minX    the x coordinate of the first column
+     * @param heights the surface height of every column
+     * @param tiles   the tiles of every column, from the surface down, as
+     *                {@link TileMap} values
+     */
+    public GroundStrip(int minX, int[] heights, byte[][] tiles) {
+        this.minX = minX;
+        this.heights = heights;
+        this.tiles = tiles;
+    }
+
+    /**
+     * Gets the x coordinate of the first column.
+     *
+     * @return the x coordinate of the first column
+     */
+    public int getMinX() {
+        return minX;
+    }
+
+    /**
+     * Gets the number of columns in the strip.
+     *
+     * @return the number of columns
+     */
+    public int columns() {
+        return heights.length;
+    }
+
+    /**
+     * Gets the x coordinate of a column.
+     *
+     * @param column the index of the column in the strip
+     * @return the x coordinate of the column
+     */
+    public int columnX(int column) {
+        return minX + column * Block.SIZE;
+    }
+
+    /**
+     * Gets the surface height of a column.
+     *
+     * @param column the index of the column in the strip
+     * @return the surface height of the column
+     */
+    public int heightAt(int column) {
+        return heights[column];
+    }
+
+    /**
+     * Gets the tiles of a column, from the surface down.
+     *
+     * @param column the index of the column in the strip
+     * @return the tiles of the column, as {@link TileMap} values
+     */
+    public byte[] tilesAt(int column) {
+        return tiles[column];
+    }
+
+    /**
+     * Finds the end of the run of columns with the same surface height as a
+     * given column.
+     *
+     * @param column the index of the first column of the run
+     * @return the index of the first column after the run
+     */
+    public int runEnd(int column) {
+        var end = column + 1;
+        while (end < heights.length && heights[end] == heights[column])
+            end++;
+        return end;
+    }
+}
@@ -0,0 +1,142 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.components.CoordinateSpace;
+import danogl.gui.WindowController;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.Services;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+
+/**
+ * A class drawing the whole ground as a single game object.
+ * Every chunk inside the camera is drawn as one pre-baked image, so a frame
+ * costs a handful of image draws. Chunks whose baking is not cached are painted
+ * tile by tile from the tile map, only inside the camera.
+ *
+ * @author Oryan Hassidim
+ */
+public class GroundView {
+    /**
+     * The tag of the ground view.
+     */
+    public static final String GROUND_VIEW_TAG = "ground view";
+
+    /**
+     * A renderable painting the ground inside the camera.
+     */
+    private static final class TileMapRenderable implements Renderable {
+        /**
+         * The tile map.
+         */
+        private final TileMap tiles;
+        /**
+         * The chunk baker.
+         */
+        private final ChunkBaker baker;
+        /**
+         * The camera.
+         */
+        private final GameObject camera;
+
+        /**
+         * Creates a new tile map renderable.
+         *
+         * @param tiles  the tile map
+         * @param baker  the chunk baker
+         * @param camera the camera
+         */
+        private TileMapRenderable(TileMap tiles, ChunkBaker baker, GameObject camera) {
+            this.tiles = tiles;
+            this.baker = baker;
+            this.camera = camera;
+        }
+
+        /**
+         * Paints the ground inside the camera.
+         *
+         * @param g                       the graphics to draw with
+         * @param topLeftCorner           the top left corner of the view on the
+         *                                screen
+         * @param dimensions              the dimensions of the view
+         * @param degreesCounterClockwise ignored
+         * @param isFlippedHorizontally   ignored
+         * @param isFlippedVertically     ignored
+         * @param opaqueness              the opaqueness of the view
+         */
+        @Override
+        public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions,
+                double degreesCounterClockwise, boolean isFlippedHorizontally, boolean isFlippedVertically,
+                double opaqueness) {
+            var world = camera.getTopLeftCorner();
+            var offsetX = topLeftCorner.x() - world.x();
+            var offsetY = topLeftCorner.y() - world.y();
+            var minChunk = WorldChunk.indexOf(world.x());
+            var maxChunk = WorldChunk.indexOf(world.x() + dimensions.x());
+            for (int index = minChunk; index <= maxChunk; index++) {
+                var baked = baker.get(index);
+                var x = index * WorldChunk.WIDTH;
+                if (baked != null) {
+                    baked.getRenderable().render(g, new Vector2(x + offsetX, baked.getTop() + offsetY),
+                            new Vector2(baked.getWidth(), baked.getHeight()), 0, false, false, opaqueness);
+                } else {
+                    var minX = Math.max(x, world.x());
+                    var maxX = Math.min(x + WorldChunk.WIDTH - 1, world.x() + dimensions.x());
+                    paintTiles(g, world, dimensions, minX, maxX, offsetX, offsetY, opaqueness);
+                }
+            }
+        }
+
+        /**
+         * Paints the tiles of a range of x coordinates, inside the camera.
+         *
+         * @param g          the graphics to draw with
+         * @param world      the top left corner of the camera in the world
+         * @param dimensions the dimensions of the view
+         * @param minX       the minimum x coordinate
+         * @param maxX       the maximum x coordinate (inclusive)
+         * @param offsetX    the x offset from the world to the screen
+         * @param offsetY    the y offset from the world to the screen
+         * @param opaqueness the opaqueness of the view
+         */
+        private void paintTiles(Graphics2D g, Vector2 world, Vector2 dimensions, float minX, float maxX,
+                float offsetX, float offsetY, double opaqueness) {
+            var oldComposite = g.getComposite();
+            if (opaqueness < 1)
+                g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) opaqueness));
+            var minColumn = (int) Math.floor(minX / Block.SIZE);
+            var maxColumn = (int) Math.floor(maxX / Block.SIZE);
+            var minRow = Math.max(0, (int) Math.floor(world.y() / Block.SIZE));
+            var maxRow = Math.min(tiles.rows() - 1, (int) Math.floor((world.y() + dimensions.y()) / Block.SIZE));
+            for (int column = minColumn; column <= maxColumn; column++) {
+                var x = Math.round(column * Block.SIZE + offsetX);
+                for (int row = minRow; row <= maxRow; row++) {
+                    var tile = tiles.tileAt(column, row);
+                    if (tile == TileMap.EMPTY)
+                        continue;
+                    g.setColor(tiles.colorOf(tile));
+                    g.fillRect(x, Math.round(row * Block.SIZE + offsetY), Block.SIZE, Block.SIZE);
+                }
+            }
+            g.setComposite(oldComposite);
+        }
+    }
+
+    /**
+     * Creates a ground view game object, covering the window.
+     *
+     * @param tiles  the tile map of the ground
+     * @param baker  the baker of the chunks of the ground
+     * @param camera the camera of the game
+     * @return the ground view game object
+     */
+    public static GameObject create(TileMap tiles, ChunkBaker baker, GameObject camera) {
+        var windowSize = Services.getService(WindowController.class).getWindowDimensions();
+        var view = new GameObject(Vector2.ZERO, windowSize, new TileMapRenderable(tiles, baker, camera));
+        view.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
+        view.setTag(GROUND_VIEW_TAG);
+        return view;
+    }
+}
@@ -5,10 +5,12 @@ import java.util.ArrayList;
 import java.util.List;
 
 import danogl.gui.WindowController;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 import pepse.util.ColorSupplier;
+import pepse.util.IntIntCache;
+import pepse.util.NoiseBackend;
 import pepse.util.NoiseGenerator;
+import pepse.util.RenderableCache;
 import pepse.util.Seed;
 import pepse.util.Services;
 
@@ -34,6 +36,24 @@ public class Terrain implements GroundManager {
      * The base color of the ground.
      */
     private static final Color BASE_GROUND_COLOR = new Color(212, 123, 74);
+    /**
+     * The number of columns whose heights are cached. Enough to cover the loaded
+     * world a few times over, so walking back into a recent area hits the cache.
+     */
+    private static final int HEIGHT_CACHE_COLUMNS = 512;
+    /**
+     * The value marking a column missing from the height cache.
+     */
+    private static final int MISSING_HEIGHT = Integer.MIN_VALUE;
+    /**
+     * The maximal difference of a tile color from the base color, per channel.
+     */
+    private static final int GROUND_COLOR_DELTA = 10;
+    /**
+     * The number of chunks the tile map holds at once. Many more than are ever
+     * loaded, so a chunk is never recycled while in view.
+     */
+    private static final int TILE_MAP_CHUNKS = 64;
 
     /**
      * The height of the ground at x = 0.
@@ -51,6 +71,30 @@ public class Terrain implements GroundManager {
      * The noise generator to use for the terrain.
      */
     private NoiseGenerator noise;
+    /**
+     * A per-thread buffer for the noise of a range of columns.
+     */
+    private final ThreadLocal<double[]> noiseBuffer = ThreadLocal.withInitial(() -> new double[0]);
+    /**
+     * The cached heights of the ground, by column.
+     */
+    private final IntIntCache heights = new IntIntCache(HEIGHT_CACHE_COLUMNS);
+    /**
+     * Whether runs of columns are merged into single blocks.
+     */
+    private boolean meshing = true;
+    /**
+     * Whether the blocks draw their tiles, or only collide.
+     */
+    private boolean blocksVisible = true;
+    /**
+     * The colors of the tiles, by tile value.
+     */
+    private final Color[] palette = new Color[ColorSupplier.paletteSize() + 1];
+    /**
+     * The tiles of the created columns.
+     */
+    private final TileMap tileMap;
 
     /**
      * Creates a new terrain.
@@ -60,6 +104,14 @@ public class Terrain implements GroundManager {
         this.seed = Services.getService(Seed.class).getSeed();
         groundHeightAtX0 = (int) (windowDimensions.y() * 0.7);
         noise = new NoiseGenerator(seed, groundHeightAtX0);
+        // double precision keeps the terrain identical whether or not the
+        // vector module is present
+        noise.useVectorBackend(NoiseBackend.Precision.DOUBLE);
+        for (int i = 1; i < palette.length; i++) {
+            palette[i] = ColorSupplier.paletteColor(BASE_GROUND_COLOR, GROUND_COLOR_DELTA, i - 1);
+        }
+        var rows = (int) Math.ceil(windowDimensions.y() * FILL_BLOCKS_Y_FACTOR / BLOCK_SIZE);
+        tileMap = new TileMap(rows, palette, TILE_MAP_CHUNKS);
     }
 
     /**
@@ -70,31 +122,216 @@ public class Terrain implements GroundManager {
      */
     @Override
     public float groundHeightAt(float x) {
-        x = (int) Math.floor((float) (x) / BLOCK_SIZE) * BLOCK_SIZE;
-        var y = (float) (groundHeightAtX0 + noise.noise(x, NOISE_FACTOR));
+        return heights.computeIfAbsent((int) Math.floor((float) (x) / BLOCK_SIZE), this::computeHeight);
+    }
+
+    /**
+     * Sets whether runs of columns with the same height are merged into single
+     * tall blocks, instead of a block per tile. The merged blocks draw every tile
+     * of the columns they replace, so the terrain looks the same either way.
+     * 
+     * @param meshing true to merge columns, false for a block per tile
+     */
+    public void setMeshing(boolean meshing) {
+        this.meshing = meshing;
+    }
+
+    /**
+     * Checks whether runs of columns are merged into single blocks.
+     * 
+     * @return true if columns are merged, false otherwise
+     */
+    public boolean isMeshing() {
+        return meshing;
+    }
+
+    /**
+     * Sets whether the blocks draw their tiles. When the ground is drawn from
+     * the tile map, by a {@link GroundView}, the blocks are only needed for
+     * collisions and can be left invisible.
+     * 
+     * @param blocksVisible true for blocks drawing their tiles, false for
+     *                      invisible blocks
+     */
+    public void setBlocksVisible(boolean blocksVisible) {
+        this.blocksVisible = blocksVisible;
+    }
+
+    /**
+     * Gets the tiles of the created columns.
+     * 
+     * @return the tile map
+     */
+    @Override
+    public TileMap getTileMap() {
+        return tileMap;
+    }
+
+    /**
+     * Gets the cache of the heights of the ground, by column.
+     * 
+     * @return the height cache
+     */
+    public IntIntCache getHeightCache() {
+        return heights;
+    }
+
+    /**
+     * Computes the height of the ground at a column, bypassing the cache.
+     * 
+     * @param column the index of the column
+     * @return the height of the ground at the column
+     */
+    private int computeHeight(int column) {
+        var y = (float) (groundHeightAtX0 + noise.noise(column * BLOCK_SIZE, NOISE_FACTOR));
+        return toBlockHeight(y);
+    }
+
+    /**
+     * Rounds a height of the ground down to the top of its block.
+     * 
+     * @param y the height
+     * @return the height of the top of the block
+     */
+    private static int toBlockHeight(float y) {
         return (int) Math.ceil(y / BLOCK_SIZE) * BLOCK_SIZE;
     }
 
     /**
-     * Creates a list of blocks for a given range of x coordinates.
+     * Writes the heights of the ground for the block columns in a given range of
+     * x coordinates. Columns missing from the cache are computed together, in one
+     * pass over the noise.
+     * 
+     * @param minX the minimum x coordinate
+     * @param maxX the maximum x coordinate
+     * @param out  the array to write the heights into, one per column
+     * @return the number of columns written
+     */
+    @Override
+    public int groundHeightsInRange(int minX, int maxX, int[] out) {
+        var firstColumn = Math.floorDiv(minX, BLOCK_SIZE);
+        var count = Math.max(0, Math.floorDiv(maxX - firstColumn * BLOCK_SIZE + BLOCK_SIZE - 1, BLOCK_SIZE));
+        var firstMissing = count;
+        var lastMissing = -1;
+        for (int i = 0; i < count; i++) {
+            out[i] = heights.get(firstColumn + i, MISSING_HEIGHT);
+            if (out[i] == MISSING_HEIGHT) {
+                firstMissing = Math.min(firstMissing, i);
+                lastMissing = i;
+            }
+        }
+        if (lastMissing < 0)
+            return count;
+
+        var missing = lastMissing - firstMissing + 1;
+        var buffer = noiseBuffer.get();
+        if (buffer.length < missing) {
+            buffer = new double[missing];
+            noiseBuffer.set(buffer);
+        }
+        noise.noiseRange((firstColumn + firstMissing) * BLOCK_SIZE, BLOCK_SIZE, missing, NOISE_FACTOR, buffer);
+        for (int i = 0; i < missing; i++) {
+            var height = toBlockHeight((float) (groundHeightAtX0 + buffer[i]));
+            out[firstMissing + i] = height;
+            heights.put(firstColumn + firstMissing + i, height);
+        }
+        return count;
+    }
+
+    /**
+     * Plans the ground for a given range of x coordinates, without creating any
+     * game object. Safe to call from any thread.
      * 
      * @param minX the minimum x coordinate
      * @param maxX the maximum x coordinate
-     * @return a list of blocks for the given range of x coordinates
+     * @return the ground strip for the given range of x coordinates
      */
     @Override
-    public List<Block> createInRange(int minX, int maxX) {
+    public GroundStrip planInRange(int minX, int maxX) {
         minX = (int) Math.floor((float) (minX) / BLOCK_SIZE) * BLOCK_SIZE;
         maxX = (int) Math.ceil((float) (maxX) / BLOCK_SIZE) * BLOCK_SIZE;
-        var blocks = new ArrayList<Block>();
+        var columns = (maxX - minX) / BLOCK_SIZE;
+        var heights = new int[columns];
+        groundHeightsInRange(minX, maxX, heights);
+        var tiles = new byte[columns][];
         var Y = (int) windowDimensions.y() * FILL_BLOCKS_Y_FACTOR;
-        for (int x = minX; x < maxX; x += BLOCK_SIZE) {
-            var height = (int) groundHeightAt(x);
-            for (int y = height; y < Y; y += BLOCK_SIZE) {
-                blocks.add(new Block(new Vector2(x, y),
-                        new RectangleRenderable(ColorSupplier.approximateColor(BASE_GROUND_COLOR))));
+        for (int i = 0; i < columns; i++) {
+            var height = heights[i];
+            var column = minX / BLOCK_SIZE + i;
+            var row = height / BLOCK_SIZE;
+            tiles[i] = new byte[Math.max(0, (int) Math.ceil((Y - height) / BLOCK_SIZE))];
+            for (int j = 0; j < tiles[i].length; j++) {
+                // keyed by position, so a regenerated chunk gets the very same tiles
+                tiles[i][j] = (byte) (1 + ColorSupplier.paletteIndex(seed, column, row + j));
             }
         }
+        return new GroundStrip(minX, heights, tiles);
+    }
+
+    /**
+     * Creates the blocks of a single column of a planned ground strip.
+     * 
+     * @param strip  the ground strip
+     * @param column the index of the column in the strip
+     * @return a list of blocks for the given column
+     */
+    @Override
+    public List<Block> createColumn(GroundStrip strip, int column) {
+        if (meshing)
+            return createColumns(strip, column, column + 1);
+        storeTiles(strip, column);
+        var blocks = new ArrayList<Block>();
+        var x = strip.columnX(column);
+        var height = strip.heightAt(column);
+        var tiles = strip.tilesAt(column);
+        for (int j = 0; j < tiles.length; j++) {
+            blocks.add(Block.obtain(new Vector2(x, height + j * BLOCK_SIZE), Vector2.ONES.mult(BLOCK_SIZE),
+                    blocksVisible ? RenderableCache.rectangle(palette[tiles[j] & 0xFF]) : null));
+        }
         return blocks;
     }
-}
\ No newline at end of file
+
+    /**
+     * Creates the blocks of a range of columns of a planned ground strip. When
+     * meshing, every run of columns with the same height becomes a single
+     * immovable block, reaching from the surface to the bottom of the ground.
+     * 
+     * @param strip the ground strip
+     * @param from  the index of the first column in the strip
+     * @param to    the index after the last column in the strip
+     * @return a list of blocks for the given columns
+     */
+    @Override
+    public List<Block> createColumns(GroundStrip strip, int from, int to) {
+        if (!meshing)
+            return GroundManager.super.createColumns(strip, from, to);
+        var blocks = new ArrayList<Block>();
+        for (int start = from; start < to;) {
+            var end = Math.min(strip.runEnd(start), to);
+            var rows = strip.tilesAt(start).length;
+            var tiles = new byte[end - start][];
+            for (int i = start; i < end; i++) {
+                storeTiles(strip, i);
+                tiles[i - start] = strip.tilesAt(i);
+            }
+            if (rows > 0) {
+                blocks.add(Block.obtain(new Vector2(strip.columnX(start), strip.heightAt(start)),
+                        new Vector2((end - start) * BLOCK_SIZE, rows * BLOCK_SIZE),
+                        blocksVisible ? new TilesRenderable(palette, tiles) : null));
+            }
+            start = end;
+        }
+        return blocks;
+    }
+
+    /**
+     * Writes the tiles of a column of a planned ground strip into the tile map.
+     * 
+     * @param strip  the ground strip
+     * @param column the index of the column in the strip
+     */
+    private void storeTiles(GroundStrip strip, int column) {
+        tileMap.setColumn(Math.floorDiv(strip.columnX(column), BLOCK_SIZE),
+                Math.floorDiv(strip.heightAt(column), BLOCK_SIZE), strip.tilesAt(column));
+    }
+}
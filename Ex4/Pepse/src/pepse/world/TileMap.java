@@ -0,0 +1,198 @@
+package pepse.world;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+/**
+ * A compact store of the ground tiles, a byte per tile.
+ * Tiles are kept in fixed-size chunks of columns, each a single primitive
+ * array. The chunks live in a ring of slots indexed by the low bits of the
+ * chunk index, so a lookup is a couple of array reads, and chunks far from the
+ * recently written ones are recycled as the world slides by.
+ * A tile is an index into the palette of the map, 0 meaning no tile.
+ * The palette is copied when the map is created and never changes, so
+ * {@link #colorOf(byte)} and {@link #rows()} may be called from any thread,
+ * such as the chunk generator's workers baking the ground. All the other
+ * methods read or write the slots, and must be called from the game thread.
+ *
+ * @author Oryan Hassidim
+ */
+public class TileMap {
+    /**
+     * The value of a missing tile.
+     */
+    public static final byte EMPTY = 0;
+    /**
+     * The number of columns in a chunk of the map.
+     */
+    public static final int CHUNK_COLUMNS = WorldChunk.WIDTH / Block.SIZE;
+
+    /**
+     * The number of bits to shift the column in a packed coordinate.
+     */
+    private static final int COLUMN_SHIFT = 32;
+    /**
+     * The mask of the row bits in a packed coordinate.
+     */
+    private static final long ROW_MASK = 0xFFFFFFFFL;
+
+    /**
+     * The number of rows, from y = 0 down.
+     */
+    private final int rows;
+    /**
+     * The colors of the tiles, by tile value. Never changes.
+     */
+    private final Color[] palette;
+    /**
+     * The tiles of every slot, by column and then by row.
+     */
+    private final byte[][] slots;
+    /**
+     * The index of the chunk held by every slot.
+     */
+    private final int[] slotChunks;
+    /**
+     * The mask of the slot index bits of a chunk index.
+     */
+    private final int mask;
+
+    /**
+     * Creates a new empty tile map.
+     *
+     * @param rows     the number of rows, from y = 0 down
+     * @param palette  the colors of the tiles, by tile value. The color of
+     *                 {@link #EMPTY} is never used.
+     * @param capacity the number of chunks held at once, rounded up to a power
+     *                 of two
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    public TileMap(int rows, Color[] palette, int capacity) throws IllegalArgumentException {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("the capacity must be positive.");
+        capacity = Math.max(2, Integer.highestOneBit(capacity - 1) << 1);
+        this.rows = rows;
+        this.palette = palette.clone();
+        slots = new byte[capacity][CHUNK_COLUMNS * rows];
+        slotChunks = new int[capacity];
+        mask = capacity - 1;
+        // an empty slot holds a chunk which can never be mapped to it
+        for (int i = 0; i < capacity; i++) {
+            slotChunks[i] = i + 1;
+        }
+    }
+
+    /**
+     * Packs the coordinates of a tile into a single key.
+     *
+     * @param column the column of the tile
+     * @param row    the row of the tile
+     * @return the packed coordinates
+     */
+    public static long pack(int column, int row) {
+        return ((long) column << COLUMN_SHIFT) | (row & ROW_MASK);
+    }
+
+    /**
+     * Gets the column of packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the column
+     */
+    public static int columnOf(long key) {
+        return (int) (key >> COLUMN_SHIFT);
+    }
+
+    /**
+     * Gets the row of packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the row
+     */
+    public static int rowOf(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Gets the number of rows.
+     *
+     * @return the number of rows
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /**
+     * Gets the color of a tile value. May be called from any thread.
+     *
+     * @param tile the tile value, not {@link #EMPTY}
+     * @return the color of the tile
+     */
+    public Color colorOf(byte tile) {
+        return palette[tile & 0xFF];
+    }
+
+    /**
+     * Gets the tile at the given coordinates.
+     *
+     * @param x the x coordinate
+     * @param y the y coordinate
+     * @return the tile, or {@link #EMPTY} if there is none
+     */
+    public byte blockAt(float x, float y) {
+        return tileAt((int) Math.floor(x / Block.SIZE), (int) Math.floor(y / Block.SIZE));
+    }
+
+    /**
+     * Gets the tile at the given packed coordinates.
+     *
+     * @param key the packed coordinates
+     * @return the tile, or {@link #EMPTY} if there is none
+     * @see #pack(int, int)
+     */
+    public byte blockAt(long key) {
+        return tileAt(columnOf(key), rowOf(key));
+    }
+
+    /**
+     * Gets the tile at the given column and row.
+     *
+     * @param column the column of the tile
+     * @param row    the row of the tile
+     * @return the tile, or {@link #EMPTY} if there is none
+     */
+    public byte tileAt(int column, int row) {
+        if (row < 0 || row >= rows)
+            return EMPTY;
+        var chunk = Math.floorDiv(column, CHUNK_COLUMNS);
+        var slot = chunk & mask;
+        if (slotChunks[slot] != chunk)
+            return EMPTY;
+        return slots[slot][Math.floorMod(column, CHUNK_COLUMNS) * rows + row];
+    }
+
+    /**
+     * Sets the tiles of a column, from a given row down. The rows above it are
+     * cleared, and the rows below the given tiles are left as they are.
+     *
+     * @param column   the column
+     * @param firstRow the row of the first tile
+     * @param tiles    the tiles, from the first row down
+     */
+    public void setColumn(int column, int firstRow, byte[] tiles) {
+        var chunk = Math.floorDiv(column, CHUNK_COLUMNS);
+        var slot = chunk & mask;
+        var data = slots[slot];
+        if (slotChunks[slot] != chunk) {
+            Arrays.fill(data, EMPTY);
+            slotChunks[slot] = chunk;
+        }
+        var offset = Math.floorMod(column, CHUNK_COLUMNS) * rows;
+        var from = Math.max(0, Math.min(firstRow, rows));
+        Arrays.fill(data, offset, offset + from, EMPTY);
+        for (int i = 0; i < tiles.length && firstRow + i < rows; i++) {
+            if (firstRow + i >= 0)
+                data[offset + firstRow + i] = tiles[i];
+        }
+    }
+}
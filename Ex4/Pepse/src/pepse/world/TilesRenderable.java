@@ -0,0 +1,80 @@
+package pepse.world;
+
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Graphics2D;
+
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+
+/**
+ * A renderable drawing a grid of colored tiles, stretched over the dimensions
+ * of its object. Lets one merged ground object look exactly like the separate
+ * blocks it replaces.
+ * Rotation and flipping are ignored, as the ground never turns.
+ *
+ * @author Oryan Hassidim
+ */
+public class TilesRenderable implements Renderable {
+    /**
+     * The colors of the tiles, by tile value.
+     */
+    private final Color[] palette;
+    /**
+     * The tiles, by column and then by row from the top.
+     */
+    private final byte[][] tiles;
+    /**
+     * The number of rows.
+     */
+    private final int rows;
+
+    /**
+     * Creates a new tiles renderable.
+     *
+     * @param palette the colors of the tiles, by tile value
+     * @param tiles   the tiles, by column and then by row from the top. All the
+     *                columns should have the same number of rows.
+     */
+    public TilesRenderable(Color[] palette, byte[][] tiles) {
+        this.palette = palette;
+        this.tiles = tiles;
+        this.rows = tiles.length == 0 ? 0 : tiles[0].length;
+    }
+
+    /**
+     * Draws the tiles.
+     *
+     * @param g                       the graphics to draw with
+     * @param topLeftCorner           the top left corner of the object
+     * @param dimensions              the dimensions of the object
+     * @param degreesCounterClockwise ignored
+     * @param isFlippedHorizontally   ignored
+     * @param isFlippedVertically     ignored
+     * @param opaqueness              the opaqueness of the object
+     */
+    @Override
+    public void render(Graphics2D g, Vector2 topLeftCorner, Vector2 dimensions, double degreesCounterClockwise,
+            boolean isFlippedHorizontally, boolean isFlippedVertically, double opaqueness) {
+        if (rows == 0)
+            return;
+        var oldComposite = g.getComposite();
+        if (opaqueness < 1)
+            g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, (float) opaqueness));
+        var width = dimensions.x() / tiles.length;
+        var height = dimensions.y() / rows;
+        for (int i = 0; i < tiles.length; i++) {
+            // round the edges rather than the sizes, so neighbor tiles never leave
+            // a gap between them
+            var left = Math.round(topLeftCorner.x() + i * width);
+            var right = Math.round(topLeftCorner.x() + (i + 1) * width);
+            for (int j = 0; j < rows; j++) {
+                var top = Math.round(topLeftCorner.y() + j * height);
+                var bottom = Math.round(topLeftCorner.y() + (j + 1) * height);
+                g.setColor(palette[tiles[i][j] & 0xFF]);
+                g.fillRect(left, top, right - left, bottom - top);
+            }
+        }
+        g.setComposite(oldComposite);
+    }
+}
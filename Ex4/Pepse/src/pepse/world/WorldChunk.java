@@ -0,0 +1,179 @@
+package pepse.world;
+
+import danogl.GameObject;
+import danogl.collisions.GameObjectCollection;
+import pepse.GameState;
+import pepse.util.Event;
+import pepse.util.EventScope;
+import pepse.util.EventToken;
+import pepse.util.EvnentHandler;
+import pepse.util.ValueChanged;
+import pepse.world.Avatar.AvatarState;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A fixed-width vertical slice of the game world.
+ * The chunk owns all the game objects created for its x range, and the event
+ * subscriptions of these objects, so the whole slice is loaded into the game
+ * and removed from it as one unit.
+ *
+ * @see ChunkMaterializer
+ * @author Oryan Hassidim
+ */
+public class WorldChunk {
+    /**
+     * The width of a chunk. A multiple of the block size, so chunks never split
+     * a column of blocks.
+     */
+    public static final int WIDTH = Block.SIZE * 16;
+
+    /**
+     * The index of the chunk.
+     */
+    private final int index;
+    /**
+     * The game objects of the chunk, by layer.
+     */
+    private final Map<Integer, List<GameObject>> layers = new LinkedHashMap<>();
+    /**
+     * The avatar state changed event, relayed from the game state while the chunk
+     * is loaded.
+     */
+    private final Event<GameState, ValueChanged<AvatarState>> avatarStateChanged = new Event<>();
+    /**
+     * The handler relaying the game state event to the chunk's event.
+     */
+    private final EvnentHandler<GameState, ValueChanged<AvatarState>> relay = (sender, args) -> avatarStateChanged
+            .invoke(sender, args.getArgs());
+    /**
+     * The subscriptions of the chunk to the game state.
+     */
+    private final EventScope scope = new EventScope();
+
+    /**
+     * Creates a new empty chunk.
+     *
+     * @param index the index of the chunk
+     */
+    public WorldChunk(int index) {
+        this.index = index;
+    }
+
+    /**
+     * Returns the index of the chunk containing the given x coordinate.
+     *
+     * @param x the x coordinate
+     * @return the index of the chunk
+     */
+    public static int indexOf(float x) {
+        return Math.floorDiv((int) Math.floor(x), WIDTH);
+    }
+
+    /**
+     * Gets the index of the chunk.
+     *
+     * @return the index of the chunk
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Gets the minimum x coordinate of the chunk (inclusive).
+     *
+     * @return the minimum x coordinate
+     */
+    public int getMinX() {
+        return index * WIDTH;
+    }
+
+    /**
+     * Gets the maximum x coordinate of the chunk (exclusive).
+     *
+     * @return the maximum x coordinate
+     */
+    public int getMaxX() {
+        return getMinX() + WIDTH;
+    }
+
+    /**
+     * Adds a game object to the chunk.
+     *
+     * @param obj   the game object
+     * @param layer the layer of the game object
+     */
+    public void add(GameObject obj, int layer) {
+        layers.computeIfAbsent(layer, l -> new ArrayList<>()).add(obj);
+    }
+
+    /**
+     * Gets the event token for the avatar state changed event of the chunk.
+     * Objects of the chunk should subscribe here rather than to the game state,
+     * so their handlers are dropped with the chunk.
+     *
+     * @return The event token.
+     */
+    public EventToken<GameState, ValueChanged<AvatarState>> onAvatarStateChanged() {
+        return avatarStateChanged.getToken();
+    }
+
+    /**
+     * Subscribes the chunk to the game state, until it is unsubscribed.
+     *
+     * @param gameState the game state
+     */
+    public void subscribe(GameState gameState) {
+        scope.add(gameState.onAvatarStateChanged(), relay);
+    }
+
+    /**
+     * Unsubscribes the chunk from the game state, and drops the handlers of its
+     * objects, so they stop reacting even before they are removed from the game
+     * and are not kept alive by the chunk once recycled. A chunk cannot be
+     * subscribed again.
+     */
+    public void unsubscribe() {
+        scope.close();
+        avatarStateChanged.clear();
+    }
+
+    /**
+     * Removes up to the given number of the chunk's objects from the game, and
+     * forgets them.
+     *
+     * @param gameObjects the game objects collection
+     * @param max         the maximal number of objects to remove
+     * @param removed     the list to add the removed objects to
+     * @return the number of removed objects
+     */
+    public int removeObjects(GameObjectCollection gameObjects, int max, List<GameObject> removed) {
+        var count = 0;
+        var it = layers.entrySet().iterator();
+        while (it.hasNext() && count < max) {
+            var entry = it.next();
+            var objects = entry.getValue();
+            while (!objects.isEmpty() && count < max) {
+                var obj = objects.remove(objects.size() - 1);
+                gameObjects.removeGameObject(obj, entry.getKey());
+                removed.add(obj);
+                count++;
+            }
+            if (objects.isEmpty())
+                it.remove();
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the chunk owns no objects.
+     *
+     * @return true if the chunk owns no objects, false otherwise
+     */
+    public boolean isEmpty() {
+        return layers.isEmpty();
+    }
+}
@@ -7,6 +7,7 @@ import danogl.gui.WindowController;
 import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 import pepse.GameState;
+import pepse.GameState.Delivery;
 import pepse.util.Services;
 
 import java.awt.Color;
@@ -25,6 +26,11 @@ public class Night {
      * The opacity of the night at midnight.
      */
     private static final float MIDNIGHT_OPACITY = 0.5f;
+    /**
+     * The maximal number of opacity updates per second. The opacity changes too
+     * slowly for more to show.
+     */
+    private static final float UPDATE_RATE = 10f;
 
     /**
      * Creates a new night.
@@ -37,13 +43,12 @@ public class Night {
         night.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         night.setTag(NightFactory.NIGHT_TAG);
         var gameState = Services.getService(GameState.class);
-        gameState.onHourInDayChanged().add(
-                (gameState1, args) -> {
-                    var hour = args.getArgs().getNewValue();
+        gameState.onHourInDayChanged(Delivery.END_OF_FRAME).add(
+                (gameState1, oldHour, hour) -> {
                     var opaqueness = Transition.CUBIC_INTERPOLATOR_FLOAT.interpolate(
                             MIDDAY_OPACITY, MIDNIGHT_OPACITY, (24 - Math.abs(hour - 12)) / 12);
                     night.renderer().setOpaqueness(opaqueness);
-                });
+                }, UPDATE_RATE);
         return night;
     }
 }
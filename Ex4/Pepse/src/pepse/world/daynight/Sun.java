@@ -7,6 +7,7 @@ import danogl.gui.WindowController;
 import danogl.gui.rendering.OvalRenderable;
 import danogl.util.Vector2;
 import pepse.GameState;
+import pepse.GameState.Delivery;
 import pepse.util.Services;
 import pepse.world.GroundManager;
 
@@ -26,6 +27,10 @@ public class Sun {
      * The radius of the sun.
      */
     private static final float SUN_RADIUS = 40f;
+    /**
+     * The maximal number of position updates per second, half the frame rate.
+     */
+    private static final float UPDATE_RATE = 30f;
 
     /**
      * Creates a new sun.
@@ -43,14 +48,13 @@ public class Sun {
         sun.setTag(SunFactory.SUN_TAG);
         sun.setCoordinateSpace(CoordinateSpace.CAMERA_COORDINATES);
         var gameState = Services.getService(GameState.class);
-        gameState.onHourInDayChanged().add(
-                (gameState1, args) -> {
-                    var hour = args.getArgs().getNewValue();
+        gameState.onHourInDayChanged(Delivery.END_OF_FRAME).add(
+                (gameState1, oldHour, hour) -> {
                     var angle = Transition.LINEAR_INTERPOLATOR_FLOAT.interpolate(0f, 360f, hour / 24);
                     sun.setCenter(initialSunCenter.subtract(cycleCenter)
                             .rotated(angle)
                             .add(cycleCenter));
-                });
+                }, UPDATE_RATE);
         return sun;
     }
 }
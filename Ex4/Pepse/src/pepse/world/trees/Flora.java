@@ -1,15 +1,17 @@
 package pepse.world.trees;
 
 import danogl.GameObject;
-import danogl.components.GameObjectPhysics;
 import danogl.components.Transition;
 import danogl.components.Transition.TransitionType;
-import danogl.gui.rendering.OvalRenderable;
-import danogl.gui.rendering.RectangleRenderable;
 import danogl.util.Vector2;
 import pepse.GameState;
 import pepse.util.ColorSupplier;
-import pepse.util.Services;
+import pepse.util.EventToken;
+import pepse.util.RenderableCache;
+import pepse.util.RenderableCache.Shape;
+import pepse.util.StatelessRandom;
+import pepse.util.ValueChanged;
+import pepse.world.Block;
 import pepse.world.GroundManager;
 import pepse.world.Avatar.AvatarState;
 
@@ -17,9 +19,8 @@ import java.util.List;
 import java.util.HashSet;
 import java.util.ArrayList;
 import java.awt.Color;
-import java.util.Random;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
-import java.util.Objects;
 
 /**
  * A class for creating trees, leaves and fruits in the game world.
@@ -36,9 +37,9 @@ public final class Flora {
      */
     private static final float HALF = 0.5f;
     /**
-     * The constant for the seed addition for the trees.
+     * The random stream of the trees.
      */
-    private static final int TREES_SEED_ADD = 2;
+    private static final int TREES_STREAM = 2;
     /**
      * the minimum value for the random tree height, before cutting.
      */
@@ -68,9 +69,51 @@ public final class Flora {
      */
     private static final Color TREE_BASE_COLOR = new Color(100, 50, 20);
     /**
-     * the constant to add to the seed for the leaves.
+     * the palette of the trees, kept so planning looks up no palette.
      */
-    private static final int LEAVES_SEED_ADD = 3;
+    private static final Color[] TREE_PALETTE = ColorSupplier.palette(TREE_BASE_COLOR);
+    /**
+     * the difference of the jump colors of the trees from their base color,
+     * twice the default, as the colors were approximated twice.
+     */
+    private static final int TREE_JUMP_COLOR_DELTA = 20;
+    /**
+     * the palette of the colors the trees turn to on jump.
+     */
+    private static final Color[] TREE_JUMP_PALETTE = ColorSupplier.palette(TREE_BASE_COLOR.brighter(),
+            TREE_JUMP_COLOR_DELTA);
+    /**
+     * the random stream of the leaves.
+     */
+    private static final int LEAVES_STREAM = 3;
+    /**
+     * the random stream of the fruits.
+     */
+    private static final int FRUITS_STREAM = 4;
+    /**
+     * the random stream of the jump animations of the trees.
+     */
+    private static final int TREES_JUMP_STREAM = 5;
+    /**
+     * the random stream of the jump animations of the leaves.
+     */
+    private static final int LEAVES_JUMP_STREAM = 6;
+    /**
+     * the random stream of the jump animations of the fruits.
+     */
+    private static final int FRUITS_JUMP_STREAM = 7;
+    /**
+     * the random stream of the jump colors of the trees.
+     */
+    private static final int TREES_JUMP_COLOR_STREAM = 8;
+    /**
+     * the random stream of the jump colors of the fruits.
+     */
+    private static final int FRUITS_JUMP_COLOR_STREAM = 9;
+    /**
+     * The number of bits to shift the jump count in an animation index.
+     */
+    private static final int JUMP_SHIFT = 32;
     /**
      * the size of a leaf.
      */
@@ -99,6 +142,10 @@ public final class Flora {
      * the base color of the leaves.
      */
     private static final Color LEAF_BASE_COLOR = new Color(50, 200, 30);
+    /**
+     * the palette of the leaves.
+     */
+    private static final Color[] LEAF_PALETTE = ColorSupplier.palette(LEAF_BASE_COLOR);
     /**
      * The constant for the rotation of the leaves.
      */
@@ -131,6 +178,26 @@ public final class Flora {
      * The constant for the base color of the fruits on jump.
      */
     private static final Color LEAF_BASE_COLOR_ON_JUMP = Color.YELLOW;
+    /**
+     * the palette of the colors the fruits turn to on jump.
+     */
+    private static final Color[] FRUIT_JUMP_PALETTE = ColorSupplier.palette(LEAF_BASE_COLOR_ON_JUMP);
+    /**
+     * the minimum number of fruits per tree.
+     */
+    private static final int MIN_FRUITS = 5;
+    /**
+     * the maximum number of fruits per tree.
+     */
+    private static final int MAX_FRUITS = 10;
+    /**
+     * the base color of the fruits.
+     */
+    private static final Color FRUIT_BASE_COLOR = Color.RED;
+    /**
+     * the palette of the fruits.
+     */
+    private static final Color[] FRUIT_PALETTE = ColorSupplier.palette(FRUIT_BASE_COLOR);
 
     /**
      * A private constructor to prevent instantiation.
@@ -139,142 +206,226 @@ public final class Flora {
     }
 
     /**
-     * Creates a list of trees for a given range of x coordinates.
+     * Plans the trees for a given range of x coordinates, without creating any
+     * game object. Safe to call from any thread.
      * 
-     * @param minX the minimum x coordinate
-     * @param maxX the maximum x coordinate
-     * @return a list of trees for the given range of x coordinates
-     */
-    public static List<GameObject> createInRange(float minX, float maxX) {
-        ArrayList<GameObject> trees = new ArrayList<>();
-        ArrayList<Runnable> onJump = new ArrayList<>(); // a list of actions to perform when the avatar jumps
-        var groundManager = Services.getService(GroundManager.class);
-        var seed = Services.getService(pepse.util.Seed.class).getSeed() + TREES_SEED_ADD;
+     * @param minX          the minimum x coordinate
+     * @param maxX          the maximum x coordinate
+     * @param seed          the seed of the world
+     * @param groundManager the ground manager
+     * @return a list of tree data for the given range of x coordinates
+     */
+    public static List<TreeData> planInRange(float minX, float maxX, int seed, GroundManager groundManager) {
+        ArrayList<TreeData> trees = new ArrayList<>();
+        var firstColumn = Math.floorDiv((int) Math.floor(minX), Block.SIZE) * Block.SIZE;
+        var heights = new int[(int) Math.ceil((maxX - firstColumn) / Block.SIZE) + 1];
+        groundManager.groundHeightsInRange(firstColumn, (int) Math.ceil(maxX), heights);
         for (float x = minX; x < maxX; x += TREE_SPACE) {
-            var rand = new Random(Objects.hash(seed, x));
-            var treeHeight = rand.nextInt(MIN_RANDOM_TREE_HEIGHT, MAX_RANDOM_TREE_HEIGHT);
+            var key = (long) Math.floor(x);
+            var treeHeight = StatelessRandom.nextInt(seed, TREES_STREAM, key, ZERO,
+                    MIN_RANDOM_TREE_HEIGHT, MAX_RANDOM_TREE_HEIGHT);
             if (treeHeight < MIN_TREE_HEIGHT || treeHeight % TREES_PROB != ZERO) {
                 continue;
             }
-            var groundHeight = groundManager.groundHeightAt(x);
-            var color = ColorSupplier.approximateColor(TREE_BASE_COLOR);
-            var tree = new GameObject(
+            var groundHeight = heights[((int) Math.floor(x) - firstColumn) / Block.SIZE];
+            var treeTop = Vector2.of(x, groundHeight - treeHeight);
+            trees.add(new TreeData(
                     Vector2.of(x - HALF * TREE_WIDTH, groundHeight - treeHeight),
                     new Vector2(TREE_WIDTH, treeHeight),
-                    new RectangleRenderable(color));
-            tree.physics().preventIntersectionsFromDirection(Vector2.ZERO);
-            tree.physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
-            trees.add(tree);
+                    TREE_PALETTE[ColorSupplier.paletteIndex(seed + TREES_STREAM, (int) x, ZERO)],
+                    seed, key,
+                    planLeaves(treeTop, seed, key),
+                    planFruits(treeTop, seed, key)));
+        }
+        return trees;
+    }
+
+    /**
+     * Plans the leaves of a tree.
+     * 
+     * @param treeTop the center of the top of the tree
+     * @param seed    the seed of the world
+     * @param key     the position key of the tree
+     * @return a list of leaf data
+     */
+    private static List<LeafData> planLeaves(Vector2 treeTop, int seed, long key) {
+        ArrayList<LeafData> leaves = new ArrayList<>();
+        var draw = 0L;
+        var leafCount = StatelessRandom.nextInt(seed, LEAVES_STREAM, key, draw++, MIN_LEAVES, MAX_LEAVES);
+        HashSet<Vector2> leafPositions = new HashSet<>();
+        for (int i = 0; i < leafCount; i++) {
+            // the x position of the leaf is normally distributed around the center of the
+            // top of the tree
+            var leafPosition = Vector2.of(
+                    (int) StatelessRandom.nextGaussian(seed, LEAVES_STREAM, key, draw++, ZERO, LEAF_X_STDDEV),
+                    (int) StatelessRandom.nextGaussian(seed, LEAVES_STREAM, key, draw++, LEAF_Y_MEAN,
+                            LEAF_Y_STDDEV));
+            if (leafPositions.contains(leafPosition)) {
+                i--;
+                continue;
+            }
+            leafPositions.add(leafPosition);
+            var center = treeTop.add(leafPosition.mult(LEAF_SIZE));
+            var color = LEAF_PALETTE[ColorSupplier.paletteIndex(seed + LEAVES_STREAM,
+                    (int) center.x(), (int) center.y())];
+            var swayTime = StatelessRandom.nextFloat(seed, LEAVES_STREAM, key, draw++,
+                    MIN_REGULAR_TRANSITION_TIME, MAX_REGULAR_TRANSITION_TIME);
+            var widthTime = StatelessRandom.nextFloat(seed, LEAVES_STREAM, key, draw++,
+                    MIN_REGULAR_TRANSITION_TIME, MAX_REGULAR_TRANSITION_TIME);
+            leaves.add(new LeafData(center, color, swayTime, widthTime));
+        }
+        return leaves;
+    }
+
+    /**
+     * Plans the fruits of a tree.
+     * 
+     * @param treeTop the center of the top of the tree
+     * @param seed    the seed of the world
+     * @param key     the position key of the tree
+     * @return a list of fruit data
+     */
+    private static List<FruitData> planFruits(Vector2 treeTop, int seed, long key) {
+        ArrayList<FruitData> fruits = new ArrayList<>();
+        var draw = 0L;
+        var fruitCount = StatelessRandom.nextInt(seed, FRUITS_STREAM, key, draw++, MIN_FRUITS, MAX_FRUITS);
+        for (int i = 0; i < fruitCount; i++) {
+            var fruitPosition = Vector2.of(
+                    (int) StatelessRandom.nextGaussian(seed, FRUITS_STREAM, key, draw++, ZERO, LEAF_X_STDDEV),
+                    (int) StatelessRandom.nextGaussian(seed, FRUITS_STREAM, key, draw++, LEAF_Y_MEAN,
+                            LEAF_Y_STDDEV));
+            var center = treeTop.add(fruitPosition.mult(LEAF_SIZE));
+            fruits.add(new FruitData(center,
+                    FRUIT_PALETTE[ColorSupplier.paletteIndex(seed + FRUITS_STREAM,
+                            (int) center.x(), (int) center.y())]));
+        }
+        return fruits;
+    }
 
-            onJump.add(() -> animateTreeColorChange(rand, color, tree));
+    /**
+     * Creates the trunks of the given trees.
+     * 
+     * @param trees              the tree data
+     * @param avatarStateChanged the avatar state changed event to react to
+     * @return a list of trunks, in the order of the given tree data
+     */
+    public static List<GameObject> createTrees(List<TreeData> trees,
+            EventToken<GameState, ValueChanged<AvatarState>> avatarStateChanged) {
+        ArrayList<GameObject> trunks = new ArrayList<>(trees.size());
+        for (var data : trees) {
+            trunks.add(createTree(data, avatarStateChanged));
         }
-        var gameState = Services.getService(GameState.class);
-        gameState.onAvatarStateChanged().add((avatar, args) -> {
+        return trunks;
+    }
+
+    /**
+     * Creates the trunk of a single tree, which changes its color whenever the
+     * avatar jumps.
+     * 
+     * @param data               the tree data
+     * @param avatarStateChanged the avatar state changed event to react to
+     * @return the trunk
+     */
+    public static GameObject createTree(TreeData data,
+            EventToken<GameState, ValueChanged<AvatarState>> avatarStateChanged) {
+        var tree = Trunk.obtain(data);
+        var jumps = new int[1]; // the number of jumps so far
+        avatarStateChanged.add((avatar, args) -> {
             if (args.getArgs().getNewValue() != AvatarState.JUMP)
                 return;
-            for (var r : onJump) {
-                r.run();
-            }
+            var jump = jumps[0]++;
+            animateTreeColorChange(
+                    StatelessRandom.nextFloat(data.getSeed(), TREES_JUMP_STREAM, data.getKey(), jump,
+                            MIN_JUMPING_ANIMATION_TIME, MAX_JUMPING_ANIMATION_TIME),
+                    data.getColor(),
+                    TREE_JUMP_PALETTE[StatelessRandom.nextInt(data.getSeed(), TREES_JUMP_COLOR_STREAM,
+                            data.getKey(), jump, ZERO, ColorSupplier.paletteSize())],
+                    tree);
         });
-        return trees;
+        return tree;
     }
 
     /**
      * Animates the color change of a tree.
      * 
-     * @param rand  the random number generator
-     * @param color the current color of the tree
-     * @param tree  the tree
+     * @param time      the duration of the animation
+     * @param color     the current color of the tree
+     * @param jumpColor the color to turn to
+     * @param tree      the tree
      * @return the transition
      */
-    private static Transition<Color> animateTreeColorChange(Random rand, Color color, GameObject tree) {
-        return new Transition<>(tree, c -> tree.renderer().setRenderable(new RectangleRenderable(c)),
-                color,
-                ColorSupplier.approximateColor(ColorSupplier.approximateColor(TREE_BASE_COLOR.brighter())),
-                Flora::interpolateColorLineary,
-                rand.nextFloat(MIN_JUMPING_ANIMATION_TIME, MAX_JUMPING_ANIMATION_TIME),
+    private static Transition<Float> animateTreeColorChange(float time, Color color, Color jumpColor,
+            Trunk tree) {
+        return tree.transition(
+                colorSetter(tree, Shape.RECTANGLE, color, jumpColor),
+                0f, 1f,
+                Transition.LINEAR_INTERPOLATOR_FLOAT,
+                time,
                 TransitionType.TRANSITION_ONCE,
-                () -> tree.renderer().setRenderable(new RectangleRenderable(color)));
+                () -> tree.renderer().setRenderable(RenderableCache.rectangle(color)));
     }
 
     /**
-     * Creates a leaf.
+     * Creates a leaf, reusing a recycled one if possible.
      * 
-     * @param rand the random number generator
+     * @param data the leaf data
      * @return the leaf
      */
-    private static GameObject createLeaf(Random rand) {
-        var leaf = new GameObject(Vector2.ZERO, Vector2.ONES.mult(LEAF_SIZE),
-                new RectangleRenderable(ColorSupplier.approximateColor(LEAF_BASE_COLOR))) {
-            @Override
-            public boolean shouldCollideWith(GameObject other) {
-                return false;
-            }
-        };
-        new Transition<>(leaf, leaf.renderer()::setRenderableAngle, -LEAF_ROTATION, LEAF_ROTATION,
+    private static Leaf createLeaf(LeafData data) {
+        var leaf = Leaf.obtain(data.getColor());
+        leaf.transition(leaf.renderer()::setRenderableAngle, -LEAF_ROTATION, LEAF_ROTATION,
                 Transition.CUBIC_INTERPOLATOR_FLOAT,
-                rand.nextFloat(MIN_REGULAR_TRANSITION_TIME, MAX_REGULAR_TRANSITION_TIME),
+                data.getSwayTime(),
                 TransitionType.TRANSITION_BACK_AND_FORTH, null);
-        new Transition<>(leaf, leaf::setDimensions, Vector2.ONES.mult(LEAF_SIZE),
+        leaf.transition(leaf::setDimensions, Vector2.ONES.mult(LEAF_SIZE),
                 Vector2.ONES.mult(LEAF_SIZE).multX(LEAF_WIDTH_ON_TRANSITION),
                 Transition.CUBIC_INTERPOLATOR_VECTOR,
-                rand.nextFloat(MIN_REGULAR_TRANSITION_TIME, MAX_REGULAR_TRANSITION_TIME),
+                data.getWidthTime(),
                 TransitionType.TRANSITION_BACK_AND_FORTH, null);
+        leaf.setCenter(data.getCenter());
         return leaf;
     }
 
     /**
      * Creates a stream of leaves for a given tree.
      * 
-     * @param tree the tree
+     * @param tree               the tree data
+     * @param avatarStateChanged the avatar state changed event to react to
      * @return a stream of leaves for the given tree
      */
-    public static Stream<GameObject> createLeaves(GameObject tree) {
-        ArrayList<GameObject> leaves = new ArrayList<>();
-        var seed = Services.getService(pepse.util.Seed.class).getSeed() + LEAVES_SEED_ADD;
-        var treeTop = Vector2.of(tree.getCenter().x(), tree.getTopLeftCorner().y());
-        var rand = new Random(Objects.hash(seed, treeTop.x()));
-        var leafCount = rand.nextInt(MIN_LEAVES, MAX_LEAVES);
-        HashSet<Vector2> leafPositions = new HashSet<>();
-        for (int i = 0; i < leafCount; i++) {
-            // the x position of the leaf is normally distributed around the center of the
-            // top of the tree
-            var leafPosition = Vector2.of((int) rand.nextGaussian(ZERO, LEAF_X_STDDEV),
-                    (int) rand.nextGaussian(LEAF_Y_MEAN, LEAF_Y_STDDEV));
-            if (leafPositions.contains(leafPosition)) {
-                i--;
-                continue;
-            }
-            leafPositions.add(leafPosition);
-            var leaf = createLeaf(rand);
-            leaf.setCenter(treeTop.add(leafPosition.mult(LEAF_SIZE)));
-            leaves.add(leaf);
+    public static Stream<GameObject> createLeaves(TreeData tree,
+            EventToken<GameState, ValueChanged<AvatarState>> avatarStateChanged) {
+        ArrayList<Leaf> leaves = new ArrayList<>();
+        for (var data : tree.getLeaves()) {
+            leaves.add(createLeaf(data));
         }
-        var gameState = Services.getService(GameState.class);
-        gameState.onAvatarStateChanged().add((avatar, args) -> {
+        var jumps = new int[1]; // the number of jumps so far
+        avatarStateChanged.add((avatar, args) -> {
             if (args.getArgs().getNewValue() != AvatarState.JUMP) return;
-            for (var leaf : leaves) {
+            var jump = (long) jumps[0]++ << JUMP_SHIFT;
+            for (int i = 0; i < leaves.size(); i++) {
+                var leaf = leaves.get(i);
                 var curAng = leaf.renderer().getRenderableAngle();
-                animateLeafRotation(rand, leaf, curAng);
+                animateLeafRotation(StatelessRandom.nextFloat(tree.getSeed(), LEAVES_JUMP_STREAM, tree.getKey(),
+                        jump | i, MIN_JUMPING_ANIMATION_TIME, MAX_JUMPING_ANIMATION_TIME), leaf, curAng);
             }
 
         });
-        return leaves.stream();
+        return leaves.stream().map(l -> (GameObject) l);
     }
 
     /**
      * Animates the rotation of a leaf.
      * 
-     * @param rand   the random number generator
+     * @param time   the duration of the animation
      * @param leaf   the leaf
      * @param curAng the current angle of the leaf
      */
-    private static void animateLeafRotation(Random rand, GameObject leaf, float curAng) {
-        new Transition<>(
-                leaf, leaf.renderer()::setRenderableAngle,
+    private static void animateLeafRotation(float time, Leaf leaf, float curAng) {
+        leaf.transition(leaf.renderer()::setRenderableAngle,
                 curAng, curAng + FULL_ROTATION,
                 Transition.CUBIC_INTERPOLATOR_FLOAT,
-                rand.nextFloat(MIN_JUMPING_ANIMATION_TIME, MAX_JUMPING_ANIMATION_TIME),
+                time,
                 TransitionType.TRANSITION_ONCE,
                 () -> leaf.renderer().setRenderableAngle(curAng));
     }
@@ -282,34 +433,29 @@ public final class Flora {
     /**
      * creates a stream of fruits for a given tree.
      * 
-     * @param tree the tree
+     * @param tree               the tree data
+     * @param trunk              the trunk of the tree
+     * @param avatarStateChanged the avatar state changed event to react to
      * @return a stream of fruits for the given tree
      */
-    public static Stream<GameObject> createFruits(GameObject tree) {
+    public static Stream<GameObject> createFruits(TreeData tree, GameObject trunk,
+            EventToken<GameState, ValueChanged<AvatarState>> avatarStateChanged) {
         ArrayList<Fruit> fruits = new ArrayList<>();
-        var seed = Services.getService(pepse.util.Seed.class).getSeed() + 4;
-        var treeTop = tree.getTopLeftCorner().add(tree.getDimensions().mult(0.5f).multY(0));
-        var rand = new Random(Objects.hash(seed, treeTop.x()));
-        var fruitCount = rand.nextInt(5, 10);
-        HashSet<Vector2> fruitPositions = new HashSet<>();
-        for (int i = 0; i < fruitCount; i++) {
-            var fruitPosition = Vector2.of((int) rand.nextGaussian(ZERO, LEAF_X_STDDEV),
-                    (int) rand.nextGaussian(LEAF_Y_MEAN, LEAF_Y_STDDEV));
-            if (fruitPositions.contains(fruitPosition)) {
-                i--;
-                continue;
-            }
-            var fruit = new Fruit(treeTop.add(fruitPosition.mult(LEAF_SIZE)), tree);
-            fruit.setCenter(treeTop.add(fruitPosition.mult(LEAF_SIZE)));
-            fruits.add(fruit);
+        for (var data : tree.getFruits()) {
+            fruits.add(Fruit.obtain(data.getCenter(), data.getColor(), trunk));
         }
-        var gameState = Services.getService(GameState.class);
-        gameState.onAvatarStateChanged().add((avatar, args) -> {
+        var jumps = new int[1]; // the number of jumps so far
+        avatarStateChanged.add((avatar, args) -> {
             if (args.getArgs().getNewValue() != AvatarState.JUMP)
                 return;
-            for (var fruit : fruits) {
+            var jump = (long) jumps[0]++ << JUMP_SHIFT;
+            for (int i = 0; i < fruits.size(); i++) {
+                var fruit = fruits.get(i);
                 var curColor = fruit.color;
-                animateFruitColorChange(rand, fruit, curColor);
+                animateFruitColorChange(StatelessRandom.nextFloat(tree.getSeed(), FRUITS_JUMP_STREAM, tree.getKey(),
+                        jump | i, 4, 8), fruit, curColor,
+                        FRUIT_JUMP_PALETTE[StatelessRandom.nextInt(tree.getSeed(), FRUITS_JUMP_COLOR_STREAM,
+                                tree.getKey(), jump | i, ZERO, ColorSupplier.paletteSize())]);
             }
         });
 
@@ -317,20 +463,37 @@ public final class Flora {
     }
 
     /**
-     * Interpolates between two colors.
+     * Animates the color change of a fruit.
      * 
-     * @param s the start color
-     * @param e the end color
-     * @param t the time
-     * @return the interpolated color
-     */
-    private static void animateFruitColorChange(Random rand, Fruit fruit, Color curColor) {
-        new Transition<Color>(
-                fruit, c -> fruit.renderer().setRenderable(new OvalRenderable(c)),
-                curColor, ColorSupplier.approximateColor(LEAF_BASE_COLOR_ON_JUMP),
-                Flora::interpolateColorLineary,
-                rand.nextFloat(4, 8), TransitionType.TRANSITION_ONCE,
-                () -> fruit.renderer().setRenderable(new OvalRenderable(curColor)));
+     * @param time     the duration of the animation
+     * @param fruit    the fruit
+     * @param curColor  the current color of the fruit
+     * @param jumpColor the color to turn to
+     */
+    private static void animateFruitColorChange(float time, Fruit fruit, Color curColor, Color jumpColor) {
+        fruit.<Float>transition(
+                colorSetter(fruit, Shape.OVAL, curColor, jumpColor),
+                0f, 1f,
+                Transition.LINEAR_INTERPOLATOR_FLOAT,
+                time, TransitionType.TRANSITION_ONCE,
+                () -> fruit.renderer().setRenderable(RenderableCache.oval(curColor)));
+    }
+
+    /**
+     * Creates a function setting the renderable of an object to a color between
+     * two colors. The renderables come from the shared cache, so animating
+     * allocates no color and no renderable per step.
+     * 
+     * @param obj   the object
+     * @param shape the shape of the renderable
+     * @param s     the start color
+     * @param e     the end color
+     * @return a function of the time, in [0, 1]
+     */
+    private static Consumer<Float> colorSetter(GameObject obj, Shape shape, Color s, Color e) {
+        return t -> obj.renderer().setRenderable(RenderableCache.get(shape,
+                ci(s.getRed(), e.getRed(), t), ci(s.getGreen(), e.getGreen(), t),
+                ci(s.getBlue(), e.getBlue(), t), ci(s.getAlpha(), e.getAlpha(), t)));
     }
 
     /**
@@ -344,18 +507,4 @@ public final class Flora {
     private static int ci(int s, int e, float t) {
         return s + (int) ((e - s) * t);
     }
-
-    /**
-     * Interpolates between two colors.
-     * 
-     * @param s the start color
-     * @param e the end color
-     * @param t the time
-     * @return the interpolated color
-     */
-    private static Color interpolateColorLineary(Color s, Color e, float t) {
-        return new Color(
-                ci(s.getRed(), e.getRed(), t), ci(s.getGreen(), e.getGreen(), t),
-                ci(s.getBlue(), e.getBlue(), t), ci(s.getAlpha(), e.getAlpha(), t));
-    }
 }
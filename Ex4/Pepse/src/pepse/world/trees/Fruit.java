@@ -4,20 +4,22 @@ import java.awt.Color;
 
 import danogl.GameObject;
 import danogl.components.ScheduledTask;
-import danogl.gui.rendering.OvalRenderable;
 import danogl.util.Vector2;
-import pepse.util.ColorSupplier;
 import pepse.util.Food;
+import pepse.util.ObjectPool;
+import pepse.util.RenderableCache;
 import pepse.util.Services;
 import pepse.world.daynight.CycleLength;
 
 /**
  * A class representing a fruit in the game world.
+ * Fruits are pooled. Recycling strips the color transitions of the previous
+ * fruit.
  * 
  * @see Food
  * @author Oryan Hassidim
  */
-class Fruit extends GameObject implements Food {
+class Fruit extends PooledGameObject implements Food {
     /**
      * The location to move the fruit to when it is eaten.
      */
@@ -26,6 +28,15 @@ class Fruit extends GameObject implements Food {
      * The energy provided by the fruit when eaten.
      */
     private static final float FRUIT_ENERGY = 10f;
+    /**
+     * The maximal number of free fruits kept for reuse.
+     */
+    private static final int POOL_CAPACITY = 1024;
+    /**
+     * The pool of free fruits.
+     */
+    private static final ObjectPool<Fruit> POOL = new ObjectPool<>("fruits",
+            () -> new Fruit(Vector2.ZERO, Color.BLACK, null), POOL_CAPACITY);
 
     /**
      * The color of the fruit.
@@ -35,18 +46,61 @@ class Fruit extends GameObject implements Food {
      * The tree that the fruit is on.
      */
     private GameObject tree;
+    /**
+     * The number of times the fruit was recycled, so a regrowth scheduled
+     * before being recycled does not move the reused fruit.
+     */
+    private int generation = 0;
 
     /**
      * Creates a new fruit.
      * 
      * @param position the position of the fruit
+     * @param color    the color of the fruit
      * @param tree     the tree that the fruit is on
      */
-    public Fruit(Vector2 position, GameObject tree) {
+    public Fruit(Vector2 position, Color color, GameObject tree) {
         super(position, Vector2.ONES.mult(Flora.LEAF_SIZE), null);
         this.tree = tree;
-        color = ColorSupplier.approximateColor(Color.RED);
-        this.renderer().setRenderable(new OvalRenderable(color));
+        this.color = color;
+        this.renderer().setRenderable(RenderableCache.oval(color));
+    }
+
+    /**
+     * Gets a fruit, reusing a recycled one if possible.
+     * 
+     * @param center the center of the fruit
+     * @param color  the color of the fruit
+     * @param tree   the tree that the fruit is on
+     * @return the fruit
+     */
+    static Fruit obtain(Vector2 center, Color color, GameObject tree) {
+        var fruit = POOL.obtain();
+        fruit.tree = tree;
+        fruit.color = color;
+        fruit.renderer().setRenderable(RenderableCache.oval(color));
+        fruit.setCenter(center);
+        return fruit;
+    }
+
+    /**
+     * Gets the pool of free fruits.
+     * 
+     * @return the pool
+     */
+    static ObjectPool<Fruit> getPool() {
+        return POOL;
+    }
+
+    /**
+     * Returns the fruit to the pool. It must already be out of the game.
+     */
+    @Override
+    public void recycle() {
+        strip();
+        generation++;
+        tree = null;
+        POOL.release(this);
     }
 
     /**
@@ -57,9 +111,13 @@ class Fruit extends GameObject implements Food {
     @Override
     public float eaten() {
         var center = this.getCenter();
+        var generation = this.generation;
         this.setCenter(Vector2.of(this.getCenter().x() ,OUT_OF_BOUNDS_LOCATION));
         new ScheduledTask(tree, Services.getService(CycleLength.class).provide(), false,
-                () -> this.setCenter(center));
+                () -> {
+                    if (this.generation == generation)
+                        this.setCenter(center);
+                });
         return FRUIT_ENERGY;
     }
 }
\ No newline at end of file
@@ -0,0 +1,51 @@
+package pepse.world.trees;
+
+import danogl.util.Vector2;
+
+import java.awt.Color;
+
+/**
+ * A pure-data description of a fruit.
+ *
+ * @see TreeData
+ * @author Oryan Hassidim
+ */
+final class FruitData {
+    /**
+     * The center of the fruit.
+     */
+    private final Vector2 center;
+    /**
+     * The color of the fruit.
+     */
+    private final Color color;
+
+    /**
+     * Creates a new fruit data.
+     *
+     * @param center the center of the fruit
+     * @param color  the color of the fruit
+     */
+    FruitData(Vector2 center, Color color) {
+        this.center = center;
+        this.color = color;
+    }
+
+    /**
+     * Gets the center of the fruit.
+     *
+     * @return the center of the fruit
+     */
+    Vector2 getCenter() {
+        return center;
+    }
+
+    /**
+     * Gets the color of the fruit.
+     *
+     * @return the color of the fruit
+     */
+    Color getColor() {
+        return color;
+    }
+}
@@ -0,0 +1,75 @@
+package pepse.world.trees;
+
+import java.awt.Color;
+
+import danogl.GameObject;
+import danogl.util.Vector2;
+import pepse.util.ObjectPool;
+import pepse.util.RenderableCache;
+
+/**
+ * A class representing a leaf in the game world.
+ * Leaves are pooled. Recycling strips the sway and jump transitions and
+ * restores the size, so a reused leaf sways with the timings of its new tree.
+ * 
+ * @author Oryan Hassidim
+ */
+class Leaf extends PooledGameObject {
+    /**
+     * The maximal number of free leaves kept for reuse.
+     */
+    private static final int POOL_CAPACITY = 8192;
+    /**
+     * The pool of free leaves.
+     */
+    private static final ObjectPool<Leaf> POOL = new ObjectPool<>("leaves", Leaf::new, POOL_CAPACITY);
+
+    /**
+     * Creates a new leaf.
+     */
+    private Leaf() {
+        super(Vector2.ZERO, Vector2.ONES.mult(Flora.LEAF_SIZE), null);
+    }
+
+    /**
+     * Gets a leaf of the given color, reusing a recycled one if possible.
+     * 
+     * @param color the color of the leaf
+     * @return the leaf
+     */
+    static Leaf obtain(Color color) {
+        var leaf = POOL.obtain();
+        leaf.renderer().setRenderable(RenderableCache.rectangle(color));
+        return leaf;
+    }
+
+    /**
+     * Gets the pool of free leaves.
+     * 
+     * @return the pool
+     */
+    static ObjectPool<Leaf> getPool() {
+        return POOL;
+    }
+
+    /**
+     * Leaves never collide.
+     * 
+     * @param other the other object
+     * @return false
+     */
+    @Override
+    public boolean shouldCollideWith(GameObject other) {
+        return false;
+    }
+
+    /**
+     * Returns the leaf to the pool. It must already be out of the game.
+     */
+    @Override
+    public void recycle() {
+        strip();
+        setDimensions(Vector2.ONES.mult(Flora.LEAF_SIZE));
+        POOL.release(this);
+    }
+}
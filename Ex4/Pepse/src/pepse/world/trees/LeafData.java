@@ -0,0 +1,81 @@
+package pepse.world.trees;
+
+import danogl.util.Vector2;
+
+import java.awt.Color;
+
+/**
+ * A pure-data description of a leaf.
+ *
+ * @see TreeData
+ * @author Oryan Hassidim
+ */
+final class LeafData {
+    /**
+     * The center of the leaf.
+     */
+    private final Vector2 center;
+    /**
+     * The color of the leaf.
+     */
+    private final Color color;
+    /**
+     * The duration of the leaf's swaying transition.
+     */
+    private final float swayTime;
+    /**
+     * The duration of the leaf's width transition.
+     */
+    private final float widthTime;
+
+    /**
+     * Creates a new leaf data.
+     *
+     * @param center    the center of the leaf
+     * @param color     the color of the leaf
+     * @param swayTime  the duration of the leaf's swaying transition
+     * @param widthTime the duration of the leaf's width transition
+     */
+    LeafData(Vector2 center, Color color, float swayTime, float widthTime) {
+        this.center = center;
+        this.color = color;
+        this.swayTime = swayTime;
+        this.widthTime = widthTime;
+    }
+
+    /**
+     * Gets the center of the leaf.
+     *
+     * @return the center of the leaf
+     */
+    Vector2 getCenter() {
+        return center;
+    }
+
+    /**
+     * Gets the color of the leaf.
+     *
+     * @return the color of the leaf
+     */
+    Color getColor() {
+        return color;
+    }
+
+    /**
+     * Gets the duration of the leaf's swaying transition.
+     *
+     * @return the duration of the swaying transition
+     */
+    float getSwayTime() {
+        return swayTime;
+    }
+
+    /**
+     * Gets the duration of the leaf's width transition.
+     *
+     * @return the duration of the width transition
+     */
+    float getWidthTime() {
+        return widthTime;
+    }
+}
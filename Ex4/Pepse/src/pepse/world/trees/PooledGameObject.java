@@ -0,0 +1,86 @@
+package pepse.world.trees;
+
+import danogl.GameObject;
+import danogl.components.Transition;
+import danogl.components.Transition.Interpolator;
+import danogl.components.Transition.TransitionType;
+import danogl.gui.rendering.Renderable;
+import danogl.util.Vector2;
+import pepse.util.Recyclable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A game object of the flora, which is pooled.
+ * The transitions of the object are made through it, so it knows them, and
+ * when recycled it strips them and resets its renderer. A reused object thus
+ * never runs the animations of its previous owner, nor gets its colors when
+ * they finish.
+ *
+ * @author Oryan Hassidim
+ */
+abstract class PooledGameObject extends GameObject implements Recyclable {
+    /**
+     * The transitions of the object which may still be running.
+     */
+    private final List<Transition<?>> transitions = new ArrayList<>();
+
+    /**
+     * Creates a new pooled object.
+     *
+     * @param topLeftCorner the top left corner of the object
+     * @param dimensions    the dimensions of the object
+     * @param renderable    the renderable of the object
+     */
+    PooledGameObject(Vector2 topLeftCorner, Vector2 dimensions, Renderable renderable) {
+        super(topLeftCorner, dimensions, renderable);
+    }
+
+    /**
+     * Creates a transition of the object. A transition running once is
+     * forgotten when it is reached.
+     *
+     * @param <T>          the type of the transitioned value
+     * @param setter       the setter of the value
+     * @param initialValue the initial value
+     * @param finalValue   the final value
+     * @param interpolator the interpolator
+     * @param time         the duration of the transition
+     * @param type         the type of the transition
+     * @param onReached    the action to perform when the final value is
+     *                     reached, may be null
+     * @return the transition
+     */
+    <T> Transition<T> transition(Consumer<T> setter, T initialValue, T finalValue, Interpolator<T> interpolator,
+            float time, TransitionType type, Runnable onReached) {
+        var created = new ArrayList<Transition<T>>(1); // the transition, known only once constructed
+        Runnable reached = onReached;
+        if (type == TransitionType.TRANSITION_ONCE) {
+            reached = () -> {
+                transitions.removeAll(created);
+                if (onReached != null)
+                    onReached.run();
+            };
+        }
+        var transition = new Transition<>(this, setter, initialValue, finalValue, interpolator, time, type,
+                reached);
+        created.add(transition);
+        transitions.add(transition);
+        return transition;
+    }
+
+    /**
+     * Strips the transitions of the object and resets its renderer, so it can
+     * be reused.
+     */
+    void strip() {
+        for (var transition : transitions) {
+            removeComponent(transition);
+        }
+        transitions.clear();
+        renderer().setRenderableAngle(0);
+        renderer().setRenderable(null);
+    }
+}
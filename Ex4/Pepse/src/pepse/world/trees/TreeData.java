@@ -0,0 +1,131 @@
+package pepse.world.trees;
+
+import danogl.util.Vector2;
+
+import java.awt.Color;
+import java.util.List;
+
+/**
+ * A pure-data description of a tree, its leaves and its fruits.
+ * Tree data holds no game objects, so it can be built on any thread and turned
+ * into game objects later on the game thread.
+ *
+ * @see Flora
+ * @author Oryan Hassidim
+ */
+public final class TreeData {
+    /**
+     * The top left corner of the trunk.
+     */
+    private final Vector2 topLeftCorner;
+    /**
+     * The dimensions of the trunk.
+     */
+    private final Vector2 dimensions;
+    /**
+     * The color of the trunk.
+     */
+    private final Color color;
+    /**
+     * The seed of the world, for the random numbers of the jump animations.
+     */
+    private final int seed;
+    /**
+     * The position key of the tree, for the random numbers of the jump
+     * animations.
+     */
+    private final long key;
+    /**
+     * The leaves of the tree.
+     */
+    private final List<LeafData> leaves;
+    /**
+     * The fruits of the tree.
+     */
+    private final List<FruitData> fruits;
+
+    /**
+     * Creates a new tree data.
+     *
+     * @param topLeftCorner the top left corner of the trunk
+     * @param dimensions    the dimensions of the trunk
+     * @param color         the color of the trunk
+     * @param seed          the seed of the world
+     * @param key           the position key of the tree
+     * @param leaves        the leaves of the tree
+     * @param fruits        the fruits of the tree
+     */
+    TreeData(Vector2 topLeftCorner, Vector2 dimensions, Color color, int seed, long key,
+            List<LeafData> leaves, List<FruitData> fruits) {
+        this.topLeftCorner = topLeftCorner;
+        this.dimensions = dimensions;
+        this.color = color;
+        this.seed = seed;
+        this.key = key;
+        this.leaves = leaves;
+        this.fruits = fruits;
+    }
+
+    /**
+     * Gets the top left corner of the trunk.
+     *
+     * @return the top left corner of the trunk
+     */
+    public Vector2 getTopLeftCorner() {
+        return topLeftCorner;
+    }
+
+    /**
+     * Gets the dimensions of the trunk.
+     *
+     * @return the dimensions of the trunk
+     */
+    public Vector2 getDimensions() {
+        return dimensions;
+    }
+
+    /**
+     * Gets the color of the trunk.
+     *
+     * @return the color of the trunk
+     */
+    Color getColor() {
+        return color;
+    }
+
+    /**
+     * Gets the seed of the world.
+     *
+     * @return the seed
+     */
+    int getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the position key of the tree.
+     *
+     * @return the position key
+     */
+    long getKey() {
+        return key;
+    }
+
+    /**
+     * Gets the leaves of the tree.
+     *
+     * @return the leaves of the tree
+     */
+    List<LeafData> getLeaves() {
+        return leaves;
+    }
+
+    /**
+     * Gets the fruits of the tree.
+     *
+     * @return the fruits of the tree
+     */
+    List<FruitData> getFruits() {
+        return fruits;
+    }
+}
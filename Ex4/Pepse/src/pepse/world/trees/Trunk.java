@@ -0,0 +1,65 @@
+package pepse.world.trees;
+
+import danogl.components.GameObjectPhysics;
+import danogl.util.Vector2;
+import pepse.util.ObjectPool;
+import pepse.util.RenderableCache;
+
+/**
+ * A class representing the trunk of a tree in the game world.
+ * Trunks are pooled, and reset to a new tree whenever they are reused.
+ * Recycling strips the color transitions of the previous tree.
+ * 
+ * @author Oryan Hassidim
+ */
+class Trunk extends PooledGameObject {
+    /**
+     * The maximal number of free trunks kept for reuse.
+     */
+    private static final int POOL_CAPACITY = 128;
+    /**
+     * The pool of free trunks.
+     */
+    private static final ObjectPool<Trunk> POOL = new ObjectPool<>("trunks", Trunk::new, POOL_CAPACITY);
+
+    /**
+     * Creates a new trunk.
+     */
+    private Trunk() {
+        super(Vector2.ZERO, Vector2.ONES, null);
+        physics().preventIntersectionsFromDirection(Vector2.ZERO);
+        physics().setMass(GameObjectPhysics.IMMOVABLE_MASS);
+    }
+
+    /**
+     * Gets a trunk for a tree, reusing a recycled one if possible.
+     * 
+     * @param data the tree data
+     * @return the trunk
+     */
+    static Trunk obtain(TreeData data) {
+        var trunk = POOL.obtain();
+        trunk.setDimensions(data.getDimensions());
+        trunk.setTopLeftCorner(data.getTopLeftCorner());
+        trunk.renderer().setRenderable(RenderableCache.rectangle(data.getColor()));
+        return trunk;
+    }
+
+    /**
+     * Gets the pool of free trunks.
+     * 
+     * @return the pool
+     */
+    static ObjectPool<Trunk> getPool() {
+        return POOL;
+    }
+
+    /**
+     * Returns the trunk to the pool. It must already be out of the game.
+     */
+    @Override
+    public void recycle() {
+        strip();
+        POOL.release(this);
+    }
+}
@@ -0,0 +1,345 @@
+package pepse.util;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.util.Arrays;
+
+/**
+ * A noise backend evaluating many x coordinates per instruction with the
+ * incubating JDK Vector API.
+ * Since y is the same for every sample, the four corner hashes depend only on
+ * the x lattice cell, and are packed into a table of 256 entries up front. The
+ * lattice coordinates, fade curves, gradients and interpolations then run on
+ * full vectors; only the table lookup of every sample stays scalar. Gradients
+ * are selected with lane masks rather than gathered, as gathers are not
+ * intrinsified well on all JDK 17 targets.
+ * <p>
+ * This class is kept out of the main source tree, as compiling and running it
+ * requires {@code --add-modules jdk.incubator.vector}. It is only ever loaded
+ * reflectively, by {@link NoiseBackend#vectorized}.
+ * </p>
+ *
+ * @author Oryan Hassidim
+ */
+public final class VectorNoise implements NoiseBackend {
+    /**
+     * The double lanes species.
+     */
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    /**
+     * The long lanes species, with as many lanes as {@link #DOUBLES}.
+     */
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    /**
+     * The float lanes species.
+     */
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    /**
+     * The int lanes species, with as many lanes as {@link #FLOATS}.
+     */
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    /**
+     * The number of bits of a corner hash in a packed hash.
+     */
+    private static final int HASH_BITS = 4;
+    /**
+     * The mask of a corner hash.
+     */
+    private static final int HASH_MASK = 15;
+
+    /**
+     * The per-thread buffers of the lattice values of a strip.
+     */
+    private static final class Lattice {
+        /**
+         * The fractional x coordinates.
+         */
+        private double[] fractions = new double[0];
+        /**
+         * The x lattice cells, as doubles.
+         */
+        private double[] cells = new double[0];
+        /**
+         * The fractional x coordinates, in single precision.
+         */
+        private float[] fractionsFloat = new float[0];
+        /**
+         * The noise sums, in single precision.
+         */
+        private float[] sumsFloat = new float[0];
+        /**
+         * The packed corner hashes.
+         */
+        private long[] hashes = new long[0];
+        /**
+         * The packed corner hashes, for the single precision lanes.
+         */
+        private int[] hashesInt = new int[0];
+
+        /**
+         * Makes sure the buffers hold at least the given number of samples.
+         *
+         * @param count the number of samples
+         */
+        private void ensure(int count) {
+            if (hashes.length >= count)
+                return;
+            fractions = new double[count];
+            cells = new double[count];
+            fractionsFloat = new float[count];
+            sumsFloat = new float[count];
+            hashes = new long[count];
+            hashesInt = new int[count];
+        }
+    }
+
+    /**
+     * The seed.
+     */
+    private final double seed;
+    /**
+     * The start point.
+     */
+    private final double startPoint;
+    /**
+     * The precision of the arithmetic.
+     */
+    private final Precision precision;
+    /**
+     * The packed hashes of the four corners of every x lattice cell, from the
+     * lowest bits: (x, y), (x + 1, y), (x, y + 1), (x + 1, y + 1).
+     */
+    private final int[] cellHashes = new int[256];
+    /**
+     * The fractional y coordinate, the same for every sample.
+     */
+    private final double y;
+    /**
+     * The fade of the fractional y coordinate, the same for every sample.
+     */
+    private final double fadeY;
+    /**
+     * The per-thread lattice buffers.
+     */
+    private final ThreadLocal<Lattice> lattices = ThreadLocal.withInitial(Lattice::new);
+
+    /**
+     * Creates a new vectorized backend.
+     *
+     * @param p          the doubled permutation table of the generator
+     * @param seed       the seed of the generator
+     * @param startPoint the start point of the generator
+     * @param precision  the precision of the arithmetic
+     */
+    public VectorNoise(int[] p, double seed, double startPoint, Precision precision) {
+        this.seed = seed;
+        this.startPoint = startPoint;
+        this.precision = precision;
+        int cellY = (int) Math.floor(seed) & 255;
+        y = seed - Math.floor(seed);
+        fadeY = y * y * y * (y * (y * 6 - 15) + 10);
+        for (int X = 0; X < cellHashes.length; X++) {
+            int A = p[X] + cellY;
+            int B = p[X + 1] + cellY;
+            cellHashes[X] = (p[p[A]] & HASH_MASK)
+                    | (p[p[B]] & HASH_MASK) << HASH_BITS
+                    | (p[p[A + 1]] & HASH_MASK) << 2 * HASH_BITS
+                    | (p[p[B + 1]] & HASH_MASK) << 3 * HASH_BITS;
+        }
+    }
+
+    /**
+     * Generates noise for a strip of evenly spaced x coordinates.
+     *
+     * @param x0     the first x coordinate.
+     * @param step   the distance between two consecutive x coordinates.
+     * @param count  the number of x coordinates.
+     * @param factor describes how large the noise should be.
+     * @param out    the array to write the noise into, at indices 0 to count - 1.
+     */
+    @Override
+    public void noiseRange(double x0, double step, int count, double factor, double[] out) {
+        var lattice = lattices.get();
+        lattice.ensure(count);
+        if (precision == Precision.FLOAT) {
+            Arrays.fill(lattice.sumsFloat, 0, count, 0f);
+            for (double currentPoint = startPoint; currentPoint >= 1; currentPoint /= 2.0) {
+                locate(lattice, x0, step, count, currentPoint);
+                for (int i = 0; i < count; i++) {
+                    lattice.hashesInt[i] = cellHashes[(int) lattice.cells[i] & 255];
+                    lattice.fractionsFloat[i] = (float) lattice.fractions[i];
+                }
+                octaveFloat(lattice, count, (float) currentPoint);
+            }
+            for (int i = 0; i < count; i++) {
+                out[i] = lattice.sumsFloat[i] * factor / startPoint;
+            }
+        } else {
+            Arrays.fill(out, 0, count, 0.0);
+            for (double currentPoint = startPoint; currentPoint >= 1; currentPoint /= 2.0) {
+                locate(lattice, x0, step, count, currentPoint);
+                for (int i = 0; i < count; i++) {
+                    lattice.hashes[i] = cellHashes[(int) lattice.cells[i] & 255];
+                }
+                octaveDouble(lattice, count, currentPoint, out);
+            }
+            for (int i = 0; i < count; i++) {
+                out[i] = out[i] * factor / startPoint;
+            }
+        }
+    }
+
+    /**
+     * Finds the lattice cell and the fractional coordinate of every sample of
+     * an octave, with the same operations as the scalar noise.
+     */
+    private void locate(Lattice lattice, double x0, double step, int count, double currentPoint) {
+        var iota = DoubleVector.broadcast(DOUBLES, 0).addIndex(1);
+        var bound = DOUBLES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            var x = iota.add(i).mul(step).add(x0).div(currentPoint).add(seed).add(seed);
+            // truncate, then step down the negative non integers
+            var floor = (DoubleVector) x.convert(VectorOperators.D2L, 0).convert(VectorOperators.L2D, 0);
+            floor = floor.sub(1, floor.compare(VectorOperators.GT, x));
+            floor.intoArray(lattice.cells, i);
+            x.sub(floor).intoArray(lattice.fractions, i);
+        }
+        for (; i < count; i++) {
+            double x = (x0 + i * step) / currentPoint;
+            x += seed;
+            x += seed;
+            double floor = Math.floor(x);
+            lattice.cells[i] = floor;
+            lattice.fractions[i] = x - floor;
+        }
+    }
+
+    /**
+     * Adds an octave of noise to the output, in double precision.
+     */
+    private void octaveDouble(Lattice lattice, int count, double currentPoint, double[] out) {
+        var y0 = DoubleVector.broadcast(DOUBLES, y);
+        var y1 = DoubleVector.broadcast(DOUBLES, y - 1);
+        var v = DoubleVector.broadcast(DOUBLES, fadeY);
+        var bound = DOUBLES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += DOUBLES.length()) {
+            var x = DoubleVector.fromArray(DOUBLES, lattice.fractions, i);
+            var x1 = x.sub(1);
+            var u = x.mul(x).mul(x).mul(x.mul(x.mul(6).sub(15)).add(10));
+            var hashes = LongVector.fromArray(LONGS, lattice.hashes, i);
+            var g00 = gradDouble(hashes, x, y0);
+            var g10 = gradDouble(hashes.lanewise(VectorOperators.LSHR, HASH_BITS), x1, y0);
+            var g01 = gradDouble(hashes.lanewise(VectorOperators.LSHR, 2 * HASH_BITS), x, y1);
+            var g11 = gradDouble(hashes.lanewise(VectorOperators.LSHR, 3 * HASH_BITS), x1, y1);
+            var near = g00.add(u.mul(g10.sub(g00)));
+            var far = g01.add(u.mul(g11.sub(g01)));
+            var noise = near.add(v.mul(far.sub(near)));
+            DoubleVector.fromArray(DOUBLES, out, i).add(noise.mul(currentPoint)).intoArray(out, i);
+        }
+        for (; i < count; i++) {
+            double x = lattice.fractions[i];
+            int hashes = (int) lattice.hashes[i];
+            double u = x * x * x * (x * (x * 6 - 15) + 10);
+            double g00 = grad(hashes, x, y);
+            double g10 = grad(hashes >> HASH_BITS, x - 1, y);
+            double g01 = grad(hashes >> 2 * HASH_BITS, x, y - 1);
+            double g11 = grad(hashes >> 3 * HASH_BITS, x - 1, y - 1);
+            double near = g00 + u * (g10 - g00);
+            double far = g01 + u * (g11 - g01);
+            out[i] += (near + fadeY * (far - near)) * currentPoint;
+        }
+    }
+
+    /**
+     * Evaluates the gradients of a corner for a vector of samples, in double
+     * precision, with the same choice of u and v as the scalar noise for z = 0.
+     *
+     * @param hashes the hashes of the corner, in the lowest bits of every lane
+     */
+    private static DoubleVector gradDouble(LongVector hashes, DoubleVector x, DoubleVector y) {
+        var h = hashes.and(HASH_MASK);
+        var u = y.blend(x, h.lt(8).cast(DOUBLES));
+        var v = DoubleVector.zero(DOUBLES)
+                .blend(x, h.eq(12).or(h.eq(14)).cast(DOUBLES))
+                .blend(y, h.lt(4).cast(DOUBLES));
+        u = u.lanewise(VectorOperators.NEG, h.and(1).eq(1).cast(DOUBLES));
+        v = v.lanewise(VectorOperators.NEG, h.and(2).eq(2).cast(DOUBLES));
+        return u.add(v);
+    }
+
+    /**
+     * Adds an octave of noise to the single precision sums.
+     */
+    private void octaveFloat(Lattice lattice, int count, float currentPoint) {
+        var fy = (float) y;
+        var y0 = FloatVector.broadcast(FLOATS, fy);
+        var y1 = FloatVector.broadcast(FLOATS, fy - 1);
+        var v = FloatVector.broadcast(FLOATS, (float) fadeY);
+        var sums = lattice.sumsFloat;
+        var bound = FLOATS.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += FLOATS.length()) {
+            var x = FloatVector.fromArray(FLOATS, lattice.fractionsFloat, i);
+            var x1 = x.sub(1);
+            var u = x.mul(x).mul(x).mul(x.mul(x.mul(6).sub(15)).add(10));
+            var hashes = IntVector.fromArray(INTS, lattice.hashesInt, i);
+            var g00 = gradFloat(hashes, x, y0);
+            var g10 = gradFloat(hashes.lanewise(VectorOperators.LSHR, HASH_BITS), x1, y0);
+            var g01 = gradFloat(hashes.lanewise(VectorOperators.LSHR, 2 * HASH_BITS), x, y1);
+            var g11 = gradFloat(hashes.lanewise(VectorOperators.LSHR, 3 * HASH_BITS), x1, y1);
+            var near = g00.add(u.mul(g10.sub(g00)));
+            var far = g01.add(u.mul(g11.sub(g01)));
+            var noise = near.add(v.mul(far.sub(near)));
+            FloatVector.fromArray(FLOATS, sums, i).add(noise.mul(currentPoint)).intoArray(sums, i);
+        }
+        for (; i < count; i++) {
+            float x = lattice.fractionsFloat[i];
+            int hashes = lattice.hashesInt[i];
+            float u = x * x * x * (x * (x * 6 - 15) + 10);
+            float g00 = (float) grad(hashes, x, fy);
+            float g10 = (float) grad(hashes >> HASH_BITS, x - 1, fy);
+            float g01 = (float) grad(hashes >> 2 * HASH_BITS, x, fy - 1);
+            float g11 = (float) grad(hashes >> 3 * HASH_BITS, x - 1, fy - 1);
+            float near = g00 + u * (g10 - g00);
+            float far = g01 + u * (g11 - g01);
+            sums[i] += (near + (float) fadeY * (far - near)) * currentPoint;
+        }
+    }
+
+    /**
+     * Evaluates the gradients of a corner for a vector of samples, in single
+     * precision, with the same choice of u and v as the scalar noise for z = 0.
+     *
+     * @param hashes the hashes of the corner, in the lowest bits of every lane
+     */
+    private static FloatVector gradFloat(IntVector hashes, FloatVector x, FloatVector y) {
+        var h = hashes.and(HASH_MASK);
+        var u = y.blend(x, h.lt(8).cast(FLOATS));
+        var v = FloatVector.zero(FLOATS)
+                .blend(x, h.eq(12).or(h.eq(14)).cast(FLOATS))
+                .blend(y, h.lt(4).cast(FLOATS));
+        u = u.lanewise(VectorOperators.NEG, h.and(1).eq(1).cast(FLOATS));
+        v = v.lanewise(VectorOperators.NEG, h.and(2).eq(2).cast(FLOATS));
+        return u.add(v);
+    }
+
+    /**
+     * Evaluates the gradient of a corner for a single sample, for the tails of
+     * the vector loops.
+     *
+     * @param hash the hash of the corner, in the lowest bits
+     */
+    private static double grad(int hash, double x, double y) {
+        int h = hash & HASH_MASK;
+        double u = h < 8 ? x : y;
+        double v = h < 4 ? y : h == 12 || h == 14 ? x : 0;
+        return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+    }
+}